@@ -0,0 +1,86 @@
+package io.github.sushnag22.pdfgenerator.benchmark;
+
+import io.github.sushnag22.pdfgenerator.config.TemplateEngineConfig;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfFontRegistry;
+import io.github.sushnag22.pdfgenerator.service.PdfGeneratorService;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics;
+import io.github.sushnag22.pdfgenerator.service.PdfRendererPool;
+import io.github.sushnag22.pdfgenerator.service.PdfTemplateRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixtures shared by the benchmarks, wired by hand with the defaults of application.properties
+final class BenchmarkFixtures {
+
+    // Name of the template used to render the PDF
+    static final String TEMPLATE_NAME = "pdf_template";
+
+    private BenchmarkFixtures() {
+    }
+
+    // Method to create an invoice with the given number of items
+    static PdfDataModel createPdfDataModel(int itemCount) {
+        List<ItemDetailsModel> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal rate = BigDecimal.valueOf(1000 + i % 500, 2);
+            int quantity = 1 + i % 12;
+            items.add(new ItemDetailsModel("Product " + i, quantity, rate, rate.multiply(BigDecimal.valueOf(quantity))));
+        }
+        return new PdfDataModel("Seller Company", "123 Seller Street, Bengaluru", "29ABCDE1234F1Z5",
+                "Buyer Company", "456 Buyer Avenue, Chennai", "33ABCDE1234F1Z5", items);
+    }
+
+    // Method to create the shared template engine as configured at runtime
+    static TemplateEngine createTemplateEngine() {
+        TemplateEngineConfig templateEngineConfig = new TemplateEngineConfig();
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_DIRECTORY", "");
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_SIZE", 20);
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_TTL_MS", 0L);
+        return templateEngineConfig.pdfTemplateEngine();
+    }
+
+    // Method to create the PDF generator service as configured at runtime
+    static PdfGeneratorService createPdfGeneratorService(TemplateEngine templateEngine) {
+        return createPdfGeneratorService(templateEngine, -1, true);
+    }
+
+    // Method to create the PDF generator service with the given compression settings
+    static PdfGeneratorService createPdfGeneratorService(TemplateEngine templateEngine, int compressionLevel, boolean fullCompression) {
+        PdfRendererPool pdfRendererPool = new PdfRendererPool(new PdfFontRegistry());
+        ReflectionTestUtils.setField(pdfRendererPool, "POOL_SIZE", 0);
+        ReflectionTestUtils.setField(pdfRendererPool, "COMPRESSION_LEVEL", compressionLevel);
+        ReflectionTestUtils.setField(pdfRendererPool, "FULL_COMPRESSION", fullCompression);
+        pdfRendererPool.init();
+
+        PdfTemplateRegistry pdfTemplateRegistry = new PdfTemplateRegistry(templateEngine, pdfRendererPool);
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "DEFAULT_TEMPLATE", TEMPLATE_NAME);
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "CLASSPATH_TEMPLATES", "");
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "TEMPLATE_DIRECTORY", "");
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "TEMPLATE_PRELOAD", true);
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "RELOAD_CHECK_INTERVAL_MS", 2000L);
+        try {
+            pdfTemplateRegistry.init();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        PdfGeneratorService pdfGeneratorService = new PdfGeneratorService(templateEngine, pdfRendererPool,
+                pdfTemplateRegistry, new PdfRenderMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(pdfGeneratorService, "PDF_DIRECTORY", "pdfs/");
+        ReflectionTestUtils.setField(pdfGeneratorService, "ITEM_QUANTITY_UNIT", "Nos");
+        ReflectionTestUtils.setField(pdfGeneratorService, "CURRENCY_FORMAT", "INR");
+        ReflectionTestUtils.setField(pdfGeneratorService, "HASH_ALGORITHM", "SHA-256");
+        ReflectionTestUtils.setField(pdfGeneratorService, "LARGE_DOCUMENT_THRESHOLD", 2000);
+        ReflectionTestUtils.setField(pdfGeneratorService, "CHUNK_SIZE", 500);
+        return pdfGeneratorService;
+    }
+}
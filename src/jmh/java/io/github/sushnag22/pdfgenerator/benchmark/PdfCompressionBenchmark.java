@@ -0,0 +1,58 @@
+package io.github.sushnag22.pdfgenerator.benchmark;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfGeneratorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Size versus CPU time of the rendered PDF for the compression settings (pdf.output.compression-level and pdf.output.full-compression)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfCompressionBenchmark {
+
+    // Deflate level of the PDF streams
+    @Param({"0", "1", "-1", "9"})
+    public int compressionLevel;
+
+    // Whether the objects and the cross-reference table are packed into compressed streams
+    @Param({"false", "true"})
+    public boolean fullCompression;
+
+    // Number of items of the invoice
+    @Param({"100", "1000"})
+    public int itemCount;
+
+    // Invoice rendered by the benchmark
+    private PdfDataModel pdfDataModel;
+
+    // Service under benchmark
+    private PdfGeneratorService pdfGeneratorService;
+
+    // Size of the rendered PDF, reported next to the time of each configuration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        // Size in bytes of the last rendered PDF
+        public long pdfBytes;
+    }
+
+    // Set up the invoice and the service once per configuration
+    @Setup(Level.Trial)
+    public void setUp() {
+        pdfDataModel = BenchmarkFixtures.createPdfDataModel(itemCount);
+        pdfGeneratorService = BenchmarkFixtures.createPdfGeneratorService(BenchmarkFixtures.createTemplateEngine(),
+                compressionLevel, fullCompression);
+    }
+
+    // Whole render with the compression settings
+    @Benchmark
+    public ByteArrayOutputStream render(OutputSize outputSize) {
+        ByteArrayOutputStream byteArrayOutputStream = pdfGeneratorService.generatePdfFromHtml(pdfDataModel);
+        outputSize.pdfBytes = byteArrayOutputStream.size();
+        return byteArrayOutputStream;
+    }
+}
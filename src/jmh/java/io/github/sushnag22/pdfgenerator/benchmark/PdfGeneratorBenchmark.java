@@ -0,0 +1,76 @@
+package io.github.sushnag22.pdfgenerator.benchmark;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfGeneratorService;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks of the generation pipeline, from hashing the input data to the rendered PDF
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PdfGeneratorBenchmark {
+
+    // Number of items of the invoice
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int itemCount;
+
+    // Invoice rendered by the benchmarks
+    private PdfDataModel pdfDataModel;
+
+    // Shared template engine
+    private TemplateEngine templateEngine;
+
+    // Service under benchmark
+    private PdfGeneratorService pdfGeneratorService;
+
+    // Template context of the invoice, as built by the service
+    private Context context;
+
+    // Set up the invoice and the services once per parameter
+    @Setup(Level.Trial)
+    public void setUp() {
+        pdfDataModel = BenchmarkFixtures.createPdfDataModel(itemCount);
+        templateEngine = BenchmarkFixtures.createTemplateEngine();
+        pdfGeneratorService = BenchmarkFixtures.createPdfGeneratorService(templateEngine);
+
+        context = new Context();
+        context.setVariable("sellerName", pdfDataModel.getSellerName());
+        context.setVariable("sellerAddress", pdfDataModel.getSellerAddress());
+        context.setVariable("sellerGstin", pdfDataModel.getSellerGstin());
+        context.setVariable("buyerName", pdfDataModel.getBuyerName());
+        context.setVariable("buyerAddress", pdfDataModel.getBuyerAddress());
+        context.setVariable("buyerGstin", pdfDataModel.getBuyerGstin());
+        context.setVariable("itemQuantityUnit", "Nos");
+        context.setVariable("currencySymbol", "INR");
+        context.setVariable("items", pdfDataModel.getItems());
+    }
+
+    // Hash of the input data
+    @Benchmark
+    public String hashPdfData() {
+        return pdfGeneratorService.hashPdfData(pdfDataModel);
+    }
+
+    // File name of the PDF, including the hash
+    @Benchmark
+    public String generateFileName() {
+        return pdfGeneratorService.generateFileName(pdfDataModel);
+    }
+
+    // Thymeleaf processing of the template into the HTML string
+    @Benchmark
+    public String processTemplate() {
+        return templateEngine.process(BenchmarkFixtures.TEMPLATE_NAME, context);
+    }
+
+    // Whole render, from the template to the PDF bytes
+    @Benchmark
+    public ByteArrayOutputStream generatePdfFromHtml() {
+        return pdfGeneratorService.generatePdfFromHtml(pdfDataModel);
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.sushnag22.pdfgenerator.benchmark;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.util.StringUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks of the validation of the input data and of the formatting of the validation errors
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+
+    // Number of items of the invoice
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int itemCount;
+
+    // Invoice validated by the benchmarks
+    private PdfDataModel pdfDataModel;
+
+    // Invoice with missing fields and every item amount mismatched, as sent by a misbehaving client
+    private PdfDataModel invalidPdfDataModel;
+
+    // Validator factory backing the validator
+    private ValidatorFactory validatorFactory;
+
+    // Bean validator, as used for the request bodies
+    private Validator validator;
+
+    // Spring adapter of the validator, as used for the request bodies
+    private SpringValidatorAdapter springValidatorAdapter;
+
+    // Utility under benchmark
+    private final StringUtil stringUtil = new StringUtil();
+
+    // Validation errors of an invoice with all the fields missing
+    private final List<FieldError> fieldErrors = List.of(
+            new FieldError("pdfDataModel", "sellerName", "Seller name is mandatory"),
+            new FieldError("pdfDataModel", "sellerAddress", "Seller address is mandatory"),
+            new FieldError("pdfDataModel", "sellerGstin", "Seller GSTIN is mandatory"),
+            new FieldError("pdfDataModel", "buyerName", "Buyer name is mandatory"),
+            new FieldError("pdfDataModel", "buyerAddress", "Buyer address is mandatory"),
+            new FieldError("pdfDataModel", "buyerGstin", "Buyer GSTIN is mandatory"),
+            new FieldError("pdfDataModel", "items[0].name", "Item name is mandatory"));
+
+    // Set up the invoice and the validator once per parameter
+    @Setup(Level.Trial)
+    public void setUp() {
+        pdfDataModel = BenchmarkFixtures.createPdfDataModel(itemCount);
+        invalidPdfDataModel = BenchmarkFixtures.createPdfDataModel(itemCount);
+        invalidPdfDataModel.setSellerName(null);
+        invalidPdfDataModel.setBuyerGstin("");
+        invalidPdfDataModel.getItems().forEach(item -> item.setAmount(item.getAmount().add(BigDecimal.ONE)));
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        springValidatorAdapter = new SpringValidatorAdapter(validator);
+    }
+
+    // Close the validator factory
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // Item details only, which runs ItemDetailsValidator.isValid without cascading into the items
+    @Benchmark
+    public Set<ConstraintViolation<PdfDataModel>> validateItems() {
+        return validator.validateValue(PdfDataModel.class, "items", pdfDataModel.getItems());
+    }
+
+    // Whole invoice, as validated for a request body
+    @Benchmark
+    public Set<ConstraintViolation<PdfDataModel>> validate() {
+        return validator.validate(pdfDataModel);
+    }
+
+    // Rejection of an invalid invoice, from the validation to the error message returned to the client
+    @Benchmark
+    public String reject() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(invalidPdfDataModel, "pdfDataModel");
+        springValidatorAdapter.validate(invalidPdfDataModel, bindingResult);
+        return stringUtil.getFormattedErrorMessage(bindingResult.getFieldErrors());
+    }
+
+    // Error message of the validation errors
+    @Benchmark
+    public String getFormattedErrorMessage() {
+        return stringUtil.getFormattedErrorMessage(fieldErrors);
+    }
+}
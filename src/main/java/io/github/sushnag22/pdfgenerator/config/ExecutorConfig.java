@@ -0,0 +1,65 @@
+package io.github.sushnag22.pdfgenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Number of threads rendering the PDFs in parallel (0 or less uses the number of available processors)
+    @Value("${pdf.render.threads}")
+    private int RENDER_THREADS;
+
+    // Maximum number of render tasks waiting for a thread
+    @Value("${pdf.render.queue-capacity}")
+    private int RENDER_QUEUE_CAPACITY;
+
+    // Number of threads rendering the asynchronous jobs (0 or less uses the number of available processors)
+    @Value("${pdf.job.threads}")
+    private int JOB_THREADS;
+
+    // Maximum number of asynchronous jobs waiting for a thread
+    @Value("${pdf.job.queue-capacity}")
+    private int JOB_QUEUE_CAPACITY;
+
+    // Executor of the asynchronous requests (e.g. streamed responses), which Spring Boot only creates when no other executor is defined
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+        return threadPoolTaskExecutorBuilder.build();
+    }
+
+    // Bounded executor used to render the PDFs in parallel
+    @Bean
+    public ThreadPoolTaskExecutor pdfRenderExecutor() {
+        int threads = RENDER_THREADS > 0 ? RENDER_THREADS : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        threadPoolTaskExecutor.setCorePoolSize(threads);
+        threadPoolTaskExecutor.setMaxPoolSize(threads);
+        threadPoolTaskExecutor.setQueueCapacity(RENDER_QUEUE_CAPACITY);
+        threadPoolTaskExecutor.setThreadNamePrefix("pdf-render-");
+
+        // Let the submitting thread render when the queue is full, which slows down the producer instead of failing
+        threadPoolTaskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolTaskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        return threadPoolTaskExecutor;
+    }
+
+    // Dedicated worker pool rendering the asynchronous jobs, new jobs are rejected when its queue is full
+    @Bean
+    public ThreadPoolTaskExecutor pdfJobExecutor() {
+        int threads = JOB_THREADS > 0 ? JOB_THREADS : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        threadPoolTaskExecutor.setCorePoolSize(threads);
+        threadPoolTaskExecutor.setMaxPoolSize(threads);
+        threadPoolTaskExecutor.setQueueCapacity(JOB_QUEUE_CAPACITY);
+        threadPoolTaskExecutor.setThreadNamePrefix("pdf-job-");
+        return threadPoolTaskExecutor;
+    }
+}
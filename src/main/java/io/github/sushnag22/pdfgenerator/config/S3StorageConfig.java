@@ -0,0 +1,59 @@
+package io.github.sushnag22.pdfgenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+
+@Configuration
+@ConditionalOnProperty(name = "pdf.storage.backend", havingValue = "s3")
+public class S3StorageConfig {
+
+    // Endpoint of an S3 compatible object store (e.g. a local MinIO), empty to use AWS
+    @Value("${pdf.storage.s3.endpoint}")
+    private String ENDPOINT;
+
+    // Region of the bucket
+    @Value("${pdf.storage.s3.region}")
+    private String REGION;
+
+    // Whether the bucket is addressed in the path instead of the host name, needed by most local object stores
+    @Value("${pdf.storage.s3.path-style-access}")
+    private boolean PATH_STYLE_ACCESS;
+
+    // Static credentials, empty to use the default credentials chain (environment, profile, instance role)
+    @Value("${pdf.storage.s3.access-key}")
+    private String ACCESS_KEY;
+
+    @Value("${pdf.storage.s3.secret-key}")
+    private String SECRET_KEY;
+
+    // Client of the object store
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client() {
+        S3ClientBuilder s3ClientBuilder = S3Client.builder()
+                .region(Region.of(REGION))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(PATH_STYLE_ACCESS).build());
+
+        if (ENDPOINT != null && !ENDPOINT.isBlank()) {
+            s3ClientBuilder.endpointOverride(URI.create(ENDPOINT));
+        }
+
+        if (ACCESS_KEY != null && !ACCESS_KEY.isBlank()) {
+            s3ClientBuilder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)));
+        } else {
+            s3ClientBuilder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+
+        return s3ClientBuilder.build();
+    }
+}
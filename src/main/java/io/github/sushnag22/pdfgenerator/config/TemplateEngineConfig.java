@@ -0,0 +1,68 @@
+package io.github.sushnag22.pdfgenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class TemplateEngineConfig {
+
+    // Directory of the templates which override or add to the classpath templates (empty to only use the classpath)
+    @Value("${pdf.template.directory}")
+    private String TEMPLATE_DIRECTORY;
+
+    // Maximum number of parsed templates kept in the cache
+    @Value("${pdf.template.cache-size}")
+    private int TEMPLATE_CACHE_SIZE;
+
+    // Time to live of a cached template in milliseconds (0 or less keeps it until evicted)
+    @Value("${pdf.template.cache-ttl-ms}")
+    private long TEMPLATE_CACHE_TTL_MS;
+
+    // Shared, thread-safe template engine used to render the PDF templates, which are parsed and cached by the template registry
+    @Bean
+    public SpringTemplateEngine pdfTemplateEngine() {
+
+        // Bound the number of parsed templates kept in memory
+        StandardCacheManager standardCacheManager = new StandardCacheManager();
+        standardCacheManager.setTemplateCacheMaxSize(TEMPLATE_CACHE_SIZE);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setCacheManager(standardCacheManager);
+
+        // Resolve the templates from the root of the classpath by their id
+        ClassLoaderTemplateResolver classLoaderTemplateResolver = new ClassLoaderTemplateResolver();
+        classLoaderTemplateResolver.setOrder(1);
+        templateEngine.addTemplateResolver(configure(classLoaderTemplateResolver));
+
+        // Then the directory templates, if any, by the absolute path of the copy the template registry made of their version
+        if (TEMPLATE_DIRECTORY != null && !TEMPLATE_DIRECTORY.isBlank()) {
+            FileTemplateResolver fileTemplateResolver = new FileTemplateResolver();
+            fileTemplateResolver.setOrder(2);
+            templateEngine.addTemplateResolver(configure(fileTemplateResolver));
+        }
+
+        return templateEngine;
+    }
+
+    // Helper method to apply the settings shared by the template resolvers
+    private AbstractConfigurableTemplateResolver configure(AbstractConfigurableTemplateResolver templateResolver) {
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+        templateResolver.setCacheTTLMs(TEMPLATE_CACHE_TTL_MS > 0 ? TEMPLATE_CACHE_TTL_MS : null);
+
+        // Let the next resolver try when the template is not in this location
+        templateResolver.setCheckExistence(true);
+        return templateResolver;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.sushnag22.pdfgenerator.config;
+
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ValidationMetricsConfig implements WebMvcConfigurer {
+
+    // Bean validator used for the @Valid request bodies
+    private final Validator validator;
+
+    // Latency metrics of the render pipeline
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Constructor based dependency injection
+    @Autowired
+    public ValidationMetricsConfig(Validator validator, PdfRenderMetrics pdfRenderMetrics) {
+        this.validator = validator;
+        this.pdfRenderMetrics = pdfRenderMetrics;
+    }
+
+    // Validator of the request bodies which records the validation stage of the render pipeline
+    @Override
+    public org.springframework.validation.Validator getValidator() {
+        SpringValidatorAdapter springValidatorAdapter = new SpringValidatorAdapter(validator);
+        return new SmartValidator() {
+
+            @Override
+            public boolean supports(Class<?> clazz) {
+                return springValidatorAdapter.supports(clazz);
+            }
+
+            @Override
+            public void validate(Object target, Errors errors) {
+                Timer.Sample validationSample = pdfRenderMetrics.start();
+                springValidatorAdapter.validate(target, errors);
+                pdfRenderMetrics.stop(validationSample, Stage.VALIDATION);
+            }
+
+            @Override
+            public void validate(Object target, Errors errors, Object... validationHints) {
+                Timer.Sample validationSample = pdfRenderMetrics.start();
+                springValidatorAdapter.validate(target, errors, validationHints);
+                pdfRenderMetrics.stop(validationSample, Stage.VALIDATION);
+            }
+        };
+    }
+}
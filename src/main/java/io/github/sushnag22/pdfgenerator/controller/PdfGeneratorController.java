@@ -1,31 +1,69 @@
 package io.github.sushnag22.pdfgenerator.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.exception.RenderCapacityExceededException;
 import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobStatus;
+import io.github.sushnag22.pdfgenerator.service.PdfBatchService;
+import io.github.sushnag22.pdfgenerator.service.PdfBulkService;
+import io.github.sushnag22.pdfgenerator.service.PdfDocumentService;
+import io.github.sushnag22.pdfgenerator.service.PdfExportService;
 import io.github.sushnag22.pdfgenerator.service.PdfGeneratorService;
+import io.github.sushnag22.pdfgenerator.service.PdfJobService;
+import io.github.sushnag22.pdfgenerator.service.PdfMergeService;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderLimiter;
+import io.github.sushnag22.pdfgenerator.service.PdfStreamIngestService;
+import io.github.sushnag22.pdfgenerator.service.PdfTemplateRegistry;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageEntry;
 
+import io.github.sushnag22.pdfgenerator.util.PdfFileNames;
 import io.github.sushnag22.pdfgenerator.util.StringUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @RestController
 @Validated
@@ -35,22 +73,75 @@ public class PdfGeneratorController {
     // Logger to log the events
     private static final Logger logger = LoggerFactory.getLogger(PdfGeneratorController.class);
 
-    // Directory where all the PDF files will be stored
-    @Value("${pdf.storage.path}")
-    private String PDF_DIRECTORY;
+    // Request attributes used by Tomcat to send a file with sendfile
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    // Cache control of the stored PDF files, which never change as their names are content hashes
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
 
     // Service to generate and store the PDF
     private final PdfGeneratorService pdfGeneratorService;
 
+    // Maximum number of entries accepted in a single batch
+    @Value("${pdf.batch.max-size}")
+    private int BATCH_MAX_SIZE;
+
+    // Maximum number of files merged into a single PDF
+    @Value("${pdf.merge.max-files}")
+    private int MERGE_MAX_FILES;
+
+    // Maximum number of files exported in a single ZIP archive
+    @Value("${pdf.export.max-files}")
+    private int EXPORT_MAX_FILES;
+
+    // Service to generate and store the PDF only once for identical data
+    private final PdfDocumentService pdfDocumentService;
+
+    // Service to generate and store a batch of PDFs in parallel
+    private final PdfBatchService pdfBatchService;
+
+    // Service to run the asynchronous render jobs
+    private final PdfJobService pdfJobService;
+
+    // Service to read the PDF data of huge invoices from a JSON stream
+    private final PdfStreamIngestService pdfStreamIngestService;
+
+    // Service to generate and store a stream of NDJSON records
+    private final PdfBulkService pdfBulkService;
+
+    // Service to merge stored PDFs into a single PDF
+    private final PdfMergeService pdfMergeService;
+
+    // Service to export stored PDFs as a ZIP archive
+    private final PdfExportService pdfExportService;
+
+    // Registry of the templates the PDF can be rendered with
+    private final PdfTemplateRegistry pdfTemplateRegistry;
+
     // Service to format the field names
     private final StringUtil stringUtil;
 
     // Constructor based dependency injection
     @Autowired
-    public PdfGeneratorController(PdfGeneratorService pdfGeneratorService, StringUtil stringUtil) {
+    public PdfGeneratorController(PdfGeneratorService pdfGeneratorService, PdfDocumentService pdfDocumentService,
+                                  PdfBatchService pdfBatchService, PdfJobService pdfJobService,
+                                  PdfStreamIngestService pdfStreamIngestService, PdfBulkService pdfBulkService,
+                                  PdfMergeService pdfMergeService, PdfExportService pdfExportService,
+                                  PdfTemplateRegistry pdfTemplateRegistry, StringUtil stringUtil) {
 
         // Initialize the services
         this.pdfGeneratorService = pdfGeneratorService;
+        this.pdfDocumentService = pdfDocumentService;
+        this.pdfBatchService = pdfBatchService;
+        this.pdfJobService = pdfJobService;
+        this.pdfStreamIngestService = pdfStreamIngestService;
+        this.pdfBulkService = pdfBulkService;
+        this.pdfMergeService = pdfMergeService;
+        this.pdfExportService = pdfExportService;
+        this.pdfTemplateRegistry = pdfTemplateRegistry;
         this.stringUtil = stringUtil;
 
         // Create the PDF directory (if it does not exist) when the controller is initialized
@@ -67,6 +158,9 @@ public class PdfGeneratorController {
             @ApiResponse(responseCode = "400", description = "Invalid input data",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Render capacity exceeded, retry after the Retry-After header",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Map.class)))
@@ -78,44 +172,19 @@ public class PdfGeneratorController {
             // Check if there are validation errors in the PDF data
             if (bindingResult.hasErrors()) {
 
-                // Extract the field names with validation errors
-                String errorFields = stringUtil.getFormattedErrorMessage(bindingResult.getFieldErrors());
-
-                // Log the validation errors in the PDF data
-                logger.error("Validation errors in the PDF data: {}", errorFields);
-
                 // Return a bad request response with the formatted error messages
-                return ResponseEntity.badRequest().body(Map.of(
-                        "status", "Failure",
-                        "statusCode", 400,
-                        "message", errorFields
-                ));
+                return validationErrorResponse(bindingResult);
             }
 
-            // Generate the unique name for the PDF file based on the data
-            String fileName = pdfGeneratorService.generateFileName(pdfDataModel);
-
-            if (!fileName.isEmpty()) {
-
-                // Path to store the PDF file
-                Path filePath = Paths.get(PDF_DIRECTORY, fileName);
-
-                // Check if the PDF file already exists
-                if (!Files.exists(filePath)) {
-
-                    // Generate the PDF from the HTML template
-                    byte[] pdfBytes = pdfGeneratorService.generatePdfFromHtml(pdfDataModel).toByteArray();
-
-                    // Write the PDF to the file
-                    Files.write(filePath, pdfBytes);
+            // Check if the template exists
+            if (!pdfTemplateRegistry.contains(pdfDataModel.getTemplateId())) {
+                return unknownTemplateResponse(pdfDataModel.getTemplateId());
+            }
 
-                    // Log if the PDF is generated and stored successfully
-                    logger.info("PDF generated and saved: {}", filePath.toAbsolutePath());
-                } else {
+            // Generate and store the PDF, identical concurrent requests share a single render
+            String fileName = pdfDocumentService.generateAndStore(pdfDataModel);
 
-                    // Log if the PDF file already exists
-                    logger.info("PDF already exists: {}", filePath.toAbsolutePath());
-                }
+            if (!fileName.isEmpty()) {
 
                 // Return the file name
                 return ResponseEntity.ok(Map.of(
@@ -136,6 +205,10 @@ public class PdfGeneratorController {
                         "message", "Error generating hash for PDF data"
                 ));
             }
+        } catch (RenderCapacityExceededException renderCapacityExceededException) {
+
+            // Return a too many requests response, the client may retry later
+            return tooManyRequestsResponse(renderCapacityExceededException);
         } catch (Exception exception) {
 
             // Log if an error occurs while generating and storing the PDF
@@ -150,38 +223,738 @@ public class PdfGeneratorController {
         }
     }
 
+    // API to generate and store a PDF from a JSON stream, for invoices with too many items to be bound in memory
+    @Operation(summary = "Generate and store a PDF file from a streamed request",
+            description = "Reads the same PDF data as /generate-and-store with a streaming parser, the seller and buyer details "
+                    + "must come before the items. Each item is validated as it arrives and spooled to a temporary file, "
+                    + "so that the memory used does not depend on the number of items.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "PDF generated and stored successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or malformed input data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Render capacity exceeded, retry after the Retry-After header",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping(value = "/generate-and-store/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> generateAndStoreStream(InputStream inputStream) {
+        try {
+
+            // Read, validate, generate and store the PDF, identical concurrent requests share a single render
+            String fileName = pdfStreamIngestService.generateAndStore(inputStream);
+
+            if (fileName.isEmpty()) {
+
+                // Log if the hash generation fails
+                logger.error("Error generating hash for PDF data");
+
+                // Return an internal server error response
+                return ResponseEntity.internalServerError().body(Map.of(
+                        "status", "Error",
+                        "statusCode", 500,
+                        "message", "Error generating hash for PDF data"
+                ));
+            }
+
+            // Return the file name
+            return ResponseEntity.ok(Map.of(
+                    "status", "Success",
+                    "statusCode", 200,
+                    "message", "PDF generated and stored successfully",
+                    "fileName", fileName
+            ));
+        } catch (InvalidPdfDataException | JsonProcessingException exception) {
+
+            // Log the validation error in the streamed PDF data
+            logger.error("Invalid streamed PDF data: {}", exception.getMessage());
+
+            // Return a bad request response, a malformed document only reports that it cannot be parsed
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "Failure",
+                    "statusCode", 400,
+                    "message", exception instanceof InvalidPdfDataException
+                            ? exception.getMessage() : "Malformed JSON in the PDF data"
+            ));
+        } catch (RenderCapacityExceededException renderCapacityExceededException) {
+
+            // Return a too many requests response, the client may retry later
+            return tooManyRequestsResponse(renderCapacityExceededException);
+        } catch (Exception exception) {
+
+            // Log if an error occurs while generating and storing the PDF
+            logger.error("Error generating and storing streamed PDF", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error generating and storing PDF"
+            ));
+        }
+    }
+
+    // API to generate and store a batch of PDFs in parallel
+    @Operation(summary = "Generate and store a batch of PDF files",
+            description = "Validates every entry on its own and generates and stores the valid ones in parallel. "
+                    + "Returns one result per entry, in the same order, with either the file name or the error.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the result of every entry",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/generate-and-store/batch")
+    public ResponseEntity<Map<String, Object>> generateAndStoreBatch(@RequestBody List<PdfDataModel> pdfDataModels) {
+        try {
+
+            // Check if the batch size is within the limits
+            if (pdfDataModels == null || pdfDataModels.isEmpty() || pdfDataModels.size() > BATCH_MAX_SIZE) {
+
+                // Log if the batch size is invalid
+                logger.error("Invalid batch size: {}", pdfDataModels == null ? 0 : pdfDataModels.size());
+
+                // Return a bad request response
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "Failure",
+                        "statusCode", 400,
+                        "message", "Batch must contain between 1 and " + BATCH_MAX_SIZE + " entries"
+                ));
+            }
+
+            // Generate and store the PDFs in parallel
+            List<Map<String, Object>> results = pdfBatchService.generateAndStoreBatch(pdfDataModels);
+            long succeeded = results.stream().filter(result -> "Success".equals(result.get("status"))).count();
+
+            // Log the outcome of the batch
+            logger.info("Batch processed: {} of {} PDFs generated and stored", succeeded, results.size());
+
+            // Return the result of every entry
+            return ResponseEntity.ok(Map.of(
+                    "status", "Success",
+                    "statusCode", 200,
+                    "message", "Batch processed: " + succeeded + " of " + results.size() + " PDFs generated and stored",
+                    "results", results
+            ));
+        } catch (Exception exception) {
+
+            // Log if an error occurs while processing the batch
+            logger.error("Error generating and storing PDF batch", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error generating and storing PDF batch"
+            ));
+        }
+    }
+
+    // API to generate and store the PDFs of a stream of NDJSON records, with one NDJSON result line per record
+    @Operation(summary = "Generate and store PDF files from a stream of records",
+            description = "Reads newline-delimited PDF data records and generates and stores them in parallel as they arrive. "
+                    + "A result line with the index of the record and either the file name or the error is streamed back as soon as "
+                    + "the record finishes, in completion order, followed by a summary line. At most pdf.bulk.max-in-flight records "
+                    + "are processed at a time, further records are not read until one finishes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Records processed, see the result line of every record",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping(value = "/generate-and-store/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void generateAndStoreBulk(InputStream inputStream, HttpServletResponse response) throws IOException {
+
+        // The results are written by this request thread and the render threads, so a nightly backfill is not cut by the async request timeout
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            pdfBulkService.generateAndStore(inputStream, response.getOutputStream());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            logger.error("Bulk generation interrupted");
+        } catch (IOException exception) {
+
+            // The client went away or the request could not be read, the records in flight are still stored
+            logger.error("Error streaming bulk generation", exception);
+        } catch (Exception exception) {
+
+            // Log if an error occurs while processing the records
+            logger.error("Error generating and storing PDF bulk", exception);
+
+            // Return an internal server error response if nothing was written yet
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"status\":\"Error\",\"statusCode\":500,\"message\":\"Error generating and storing PDF bulk\"}");
+            }
+        }
+    }
+
+    // API to generate the PDF and stream it directly in the response
+    @Operation(summary = "Generate and download a PDF file",
+            description = "Generates a PDF file based on the provided data and streams it in the response while it is rendered. "
+                    + "The PDF can optionally be stored on the server at the same time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "PDF generated and streamed successfully",
+                    content = @Content(mediaType = "application/pdf",
+                            schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "429", description = "Render capacity exceeded, retry after the Retry-After header",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/generate-and-download")
+    public ResponseEntity<?> generateAndDownloadPdf(@Valid @RequestBody PdfDataModel pdfDataModel, BindingResult bindingResult,
+                                                    @RequestParam(defaultValue = "false") boolean store, HttpServletRequest request) {
+        try {
+
+            // Check if there are validation errors in the PDF data
+            if (bindingResult.hasErrors()) {
+
+                // Return a bad request response with the formatted error messages
+                return validationErrorResponse(bindingResult);
+            }
+
+            // Resolve the template once, so that the PDF is rendered with the version its file name is hashed from
+            PdfTemplateRegistry.Template template;
+            try {
+                template = pdfTemplateRegistry.resolve(pdfDataModel.getTemplateId());
+            } catch (InvalidPdfDataException invalidPdfDataException) {
+                return unknownTemplateResponse(pdfDataModel.getTemplateId());
+            }
+
+            // Generate the unique name for the PDF file based on the data
+            String fileName = pdfGeneratorService.generateFileName(pdfDataModel, template);
+
+            if (fileName.isEmpty()) {
+
+                // Log if the hash generation fails
+                logger.error("Error generating hash for PDF data");
+
+                // Return an internal server error response
+                return ResponseEntity.internalServerError().body(Map.of(
+                        "status", "Error",
+                        "statusCode", 500,
+                        "message", "Error generating hash for PDF data"
+                ));
+            }
+
+            // Reserve a slot of the render limit while the response can still be rejected, a stored PDF needs none
+            PdfRenderLimiter.Permit permit = pdfDocumentService.reserveRender(fileName);
+            if (permit != null) {
+                releaseOnCompletion(request, permit);
+            }
+
+            // Stream the stored PDF if it already exists, otherwise render it straight into the response. The permit is released without
+            // a latency sample, as the render is paced by the download of the client and would shrink the limit for slow clients.
+            StreamingResponseBody responseBody = outputStream -> {
+                try {
+                    pdfDocumentService.streamPdf(pdfDataModel, template, fileName, outputStream, store);
+                } catch (IOException ioException) {
+                    throw ioException;
+                } catch (Exception exception) {
+
+                    // The response is already committed, so the error can only be logged and the stream aborted
+                    logger.error("Error streaming PDF: {}", fileName, exception);
+                    throw new IOException("Error streaming PDF: " + fileName, exception);
+                } finally {
+                    if (permit != null) {
+                        permit.close();
+                    }
+                }
+            };
+
+            // Return the PDF as a stream
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(responseBody);
+        } catch (RenderCapacityExceededException renderCapacityExceededException) {
+
+            // Return a too many requests response, the client may retry later
+            return tooManyRequestsResponse(renderCapacityExceededException);
+        } catch (Exception exception) {
+
+            // Log if an error occurs while generating the PDF
+            logger.error("Error generating and downloading PDF", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error generating and downloading PDF"
+            ));
+        }
+    }
+
+    // API to merge stored PDFs into a single PDF
+    @Operation(summary = "Merge stored PDF files",
+            description = "Streams a single PDF with the pages of the given stored PDF files, in the given order. "
+                    + "The pages are copied from the stored files as they are, without rendering them again.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Merged PDF streamed successfully",
+                    content = @Content(mediaType = "application/pdf",
+                            schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "400", description = "Empty or too large list of files",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "PDF file not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/merge")
+    public ResponseEntity<?> mergePdfs(@RequestBody List<String> fileNames, HttpServletResponse response) {
+        try {
+
+            // Check if the number of files is within the limits
+            if (fileNames == null || fileNames.isEmpty() || fileNames.size() > MERGE_MAX_FILES) {
+
+                // Log if the number of files is invalid
+                logger.error("Invalid number of files to merge: {}", fileNames == null ? 0 : fileNames.size());
+
+                // Return a bad request response
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "Failure",
+                        "statusCode", 400,
+                        "message", "Merge must contain between 1 and " + MERGE_MAX_FILES + " files"
+                ));
+            }
+
+            // Return HTTP 404 (Not Found) before streaming anything if one of the files is not stored
+            Optional<String> missingFileName = pdfMergeService.findMissing(fileNames);
+            if (missingFileName.isPresent()) {
+                logger.error("PDF file to merge not found: {}", missingFileName.get());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "status", "Failure",
+                        "statusCode", 404,
+                        "message", "PDF file not found: " + missingFileName.get()
+                ));
+            }
+
+            // Copy the pages of the stored files straight into the response by this request thread, so that a merge of thousands of
+            // invoices is not cut by the async request timeout
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"merged.pdf\"");
+            try {
+                pdfMergeService.merge(fileNames, response.getOutputStream());
+            } catch (Exception exception) {
+
+                // Return an internal server error response if nothing was written yet
+                if (!response.isCommitted()) {
+                    throw exception;
+                }
+
+                // Otherwise the response can only be aborted
+                logger.error("Error streaming merge of {} PDFs", fileNames.size(), exception);
+            }
+            return null;
+        } catch (Exception exception) {
+
+            // Discard the headers of the merged PDF if nothing was written yet
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+
+            // Log if an error occurs while merging the PDFs
+            logger.error("Error merging PDFs", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error merging PDFs"
+            ));
+        }
+    }
+
+    // API to export stored PDFs as a ZIP archive
+    @Operation(summary = "Export stored PDF files as a ZIP archive",
+            description = "Streams a ZIP archive of the given stored PDF files, or of the stored PDF files selected by the prefix of "
+                    + "their hash and the time range in which they were stored. The PDFs are already compressed, so they are "
+                    + "stored in the archive as they are, straight from the storage into the response.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP archive streamed successfully",
+                    content = @Content(mediaType = "application/zip",
+                            schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "400", description = "No file selected or too many files",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "PDF file not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/export")
+    public ResponseEntity<?> exportPdfs(@RequestBody(required = false) List<String> fileNames,
+                                        @RequestParam(required = false) String hashPrefix,
+                                        @RequestParam(required = false) Instant from,
+                                        @RequestParam(required = false) Instant to,
+                                        HttpServletResponse response) {
+        try {
+
+            // Export the given files, or the files matching the filter when no file is given
+            List<String> exportedFileNames;
+            if (fileNames != null && !fileNames.isEmpty()) {
+
+                // Return HTTP 404 (Not Found) before streaming anything if one of the files is not stored
+                Optional<String> missingFileName = pdfExportService.findMissing(fileNames);
+                if (missingFileName.isPresent()) {
+                    logger.error("PDF file to export not found: {}", missingFileName.get());
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                            "status", "Failure",
+                            "statusCode", 404,
+                            "message", "PDF file not found: " + missingFileName.get()
+                    ));
+                }
+                exportedFileNames = fileNames;
+            } else if (hashPrefix != null || from != null || to != null) {
+                exportedFileNames = pdfExportService.selectFileNames(hashPrefix, from, to);
+            } else {
+                exportedFileNames = List.of();
+            }
+
+            // Check if the number of files is within the limits
+            if (exportedFileNames.isEmpty() || exportedFileNames.size() > EXPORT_MAX_FILES) {
+
+                // Log if the number of files is invalid
+                logger.error("Invalid number of files to export: {}", exportedFileNames.size());
+
+                // Return a bad request response
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "Failure",
+                        "statusCode", 400,
+                        "message", "Export must select between 1 and " + EXPORT_MAX_FILES + " files"
+                ));
+            }
+
+            // Write the archive straight into the response by this request thread, without buffering it or using temporary files,
+            // so that an export of thousands of files is not cut by the async request timeout
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"export.zip\"");
+            try {
+                pdfExportService.export(exportedFileNames, response.getOutputStream());
+            } catch (IOException ioException) {
+
+                // Return an internal server error response if nothing was written yet
+                if (!response.isCommitted()) {
+                    throw ioException;
+                }
+
+                // Otherwise the client went away or a file could not be read, the archive can only be aborted
+                logger.error("Error streaming PDF export of {} files", exportedFileNames.size(), ioException);
+            }
+            return null;
+        } catch (Exception exception) {
+
+            // Discard the headers of the archive if nothing was written yet
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+
+            // Log if an error occurs while exporting the PDFs
+            logger.error("Error exporting PDFs", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error exporting PDFs"
+            ));
+        }
+    }
+
+    // API to submit an asynchronous job generating and storing the PDF
+    @Operation(summary = "Submit a PDF render job",
+            description = "Validates the data and queues a job which generates and stores the PDF. Returns the job id immediately.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "503", description = "Job queue is full",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitPdfJob(@Valid @RequestBody PdfDataModel pdfDataModel, BindingResult bindingResult) {
+        try {
+
+            // Check if there are validation errors in the PDF data
+            if (bindingResult.hasErrors()) {
+
+                // Return a bad request response with the formatted error messages
+                return validationErrorResponse(bindingResult);
+            }
+
+            // Check if the template exists
+            if (!pdfTemplateRegistry.contains(pdfDataModel.getTemplateId())) {
+                return unknownTemplateResponse(pdfDataModel.getTemplateId());
+            }
+
+            // Queue the job
+            PdfJobModel pdfJobModel = pdfJobService.submit(pdfDataModel);
+
+            // Return the job id
+            return ResponseEntity.accepted().body(Map.of(
+                    "status", "Success",
+                    "statusCode", 202,
+                    "message", "PDF job submitted successfully",
+                    "jobId", pdfJobModel.getJobId(),
+                    "jobStatus", pdfJobModel.getStatus()
+            ));
+        } catch (TaskRejectedException taskRejectedException) {
+
+            // Log if the job queue is full
+            logger.error("PDF job queue is full");
+
+            // Return a service unavailable response
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "status", "Error",
+                    "statusCode", 503,
+                    "message", "PDF job queue is full. Please try again later."
+            ));
+        } catch (Exception exception) {
+
+            // Log if an error occurs while submitting the job
+            logger.error("Error submitting PDF job", exception);
+
+            // Return an internal server error response
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "Error",
+                    "statusCode", 500,
+                    "message", "Error submitting PDF job"
+            ));
+        }
+    }
+
+    // API to get the status of an asynchronous job
+    @Operation(summary = "Get the status of a PDF render job",
+            description = "Returns the status of the job (QUEUED, RENDERING, DONE or FAILED) and the file name once it is done.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getPdfJob(@PathVariable String jobId) {
+        return pdfJobService.getJob(jobId)
+                .map(pdfJobModel -> {
+
+                    // Build the job status, with the file name or the error message once finished
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("status", "Success");
+                    body.put("statusCode", 200);
+                    body.put("jobId", pdfJobModel.getJobId());
+                    body.put("jobStatus", pdfJobModel.getStatus());
+                    if (pdfJobModel.getFileName() != null) {
+                        body.put("fileName", pdfJobModel.getFileName());
+                    }
+                    if (pdfJobModel.getErrorMessage() != null) {
+                        body.put("message", pdfJobModel.getErrorMessage());
+                    }
+                    return ResponseEntity.ok(body);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // API to download the PDF of an asynchronous job
+    @Operation(summary = "Download the PDF of a render job",
+            description = "Downloads the PDF file generated by the job once it is done.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "PDF file downloaded successfully",
+                    content = @Content(mediaType = "application/pdf",
+                            schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "404", description = "Job or PDF file not found"),
+            @ApiResponse(responseCode = "409", description = "Job is not done yet")
+    })
+    @GetMapping("/jobs/{jobId}/file")
+    public ResponseEntity<?> downloadPdfJobFile(@PathVariable String jobId, HttpServletRequest request) {
+        Optional<PdfJobModel> pdfJobModel = pdfJobService.getJob(jobId);
+
+        // Return HTTP 404 (Not Found) if the job does not exist
+        if (pdfJobModel.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Return HTTP 409 (Conflict) with the current status if the job is not done yet
+        if (pdfJobModel.get().getStatus() != PdfJobStatus.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "Failure",
+                    "statusCode", 409,
+                    "message", "PDF job is not done yet",
+                    "jobStatus", pdfJobModel.get().getStatus()
+            ));
+        }
+
+        // Download the PDF generated by the job
+        return downloadPdf(pdfJobModel.get().getFileName(), request);
+    }
+
     // API to download the PDF
     @Operation(summary = "Download a PDF file",
-            description = "Downloads a specified PDF file from the server.")
+            description = "Downloads a specified PDF file from the server. Supports conditional requests (If-None-Match) "
+                    + "and byte ranges (Range), the stored files never change so they can be cached indefinitely.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "PDF file downloaded successfully",
                     content = @Content(mediaType = "application/pdf",
                             schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "206", description = "Requested range of the PDF file",
+                    content = @Content(mediaType = "application/pdf",
+                            schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "304", description = "PDF file not modified"),
             @ApiResponse(responseCode = "404", description = "PDF file not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/download/{fileName:.+}")
-    public ResponseEntity<Resource> downloadPdf(@PathVariable String fileName) {
+    public ResponseEntity<?> downloadPdf(@PathVariable String fileName, HttpServletRequest request) {
         try {
 
-            // Get the path to the PDF file
-            Path file = Paths.get(PDF_DIRECTORY, fileName);
+            // Return HTTP 404 (Not Found) for names which are not stored PDF files (e.g. paths escaping the PDF directory)
+            if (!PdfFileNames.isValid(fileName)) {
+                return ResponseEntity.notFound().build();
+            }
 
-            // Get the resource for the PDF file
-            Resource resource = new UrlResource(file.toUri());
+            // Serve the file from the cache if it was generated or downloaded recently, without accessing the storage
+            Optional<ByteBuffer> cachedPdf = pdfDocumentService.findCachedPdf(fileName);
+            PdfStorageEntry storageEntry = null;
+            long fileSize;
+            if (cachedPdf.isPresent()) {
+                fileSize = cachedPdf.get().remaining();
+            } else {
 
-            // Check if the resource exists and is readable
-            if (resource.exists() || resource.isReadable()) {
+                // Return HTTP 404 (Not Found) if the file does not exist or is not readable
+                Optional<PdfStorageEntry> storedPdf = pdfDocumentService.findStoredPdf(fileName);
+                if (storedPdf.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
 
-                // Return the resource as a response
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
+                storageEntry = storedPdf.get();
+                fileSize = storageEntry.size();
+            }
 
-                // Return HTTP 404 (Not Found) if the resource does not exist
-                return ResponseEntity.notFound().build();
+            // Strong validator derived from the content hash in the file name, the file never changes once stored
+            String eTag = "\"" + PdfFileNames.hashOf(fileName) + "\"";
+
+            // Return HTTP 304 (Not Modified) if the client already has the file
+            if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+                        .build();
+            }
+
+            // Resolve the requested byte range, the whole file by default
+            long start = 0;
+            long end = fileSize - 1;
+            HttpStatus status = HttpStatus.OK;
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRangeHeader = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRangeHeader == null || ifRangeHeader.equals(eTag))) {
+                try {
+                    List<HttpRange> httpRanges = HttpRange.parseRanges(rangeHeader);
+
+                    // Only a single range is served partially, multiple ranges get the whole file
+                    if (httpRanges.size() == 1) {
+                        start = httpRanges.getFirst().getRangeStart(fileSize);
+                        end = httpRanges.getFirst().getRangeEnd(fileSize);
+                        status = HttpStatus.PARTIAL_CONTENT;
+                    }
+                } catch (IllegalArgumentException illegalArgumentException) {
+
+                    // Return HTTP 416 (Range Not Satisfiable) if the range is invalid or outside the file
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+                            .build();
+                }
             }
+            long length = end - start + 1;
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(eTag);
+            headers.set(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+            headers.setContentLength(length);
+            if (status == HttpStatus.PARTIAL_CONTENT) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+            }
+
+            // Write the range out of the cached content
+            long position = start;
+            long lastPosition = end;
+            if (cachedPdf.isPresent()) {
+                ByteBuffer content = cachedPdf.get().slice((int) position, (int) length);
+                StreamingResponseBody responseBody = outputStream -> Channels.newChannel(outputStream).write(content);
+                return ResponseEntity.status(status).headers(headers).body(responseBody);
+            }
+
+            // Keep a stored file which is small enough in the cache for the next downloads, only on a full download and while it is
+            // streamed to the client, so that the range and HEAD requests are answered from the storage metadata without reading the file
+            if (status == HttpStatus.OK && HttpMethod.GET.matches(request.getMethod()) && pdfDocumentService.isCacheable(fileSize)) {
+                StreamingResponseBody responseBody = outputStream -> pdfDocumentService.streamIntoCache(fileName, outputStream);
+                return ResponseEntity.status(status).headers(headers).body(responseBody);
+            }
+
+            // Get the stored PDF file, which has a local path only in the local storage backend
+            Path file = storageEntry.localPath();
+
+            // Stream the range out of the storage backend if the file is not on the local file system
+            if (file == null) {
+                StreamingResponseBody responseBody = outputStream -> {
+                    try (InputStream inputStream = pdfDocumentService.openStoredPdf(fileName)) {
+                        StreamUtils.copyRange(inputStream, outputStream, position, lastPosition);
+                    }
+                };
+                return ResponseEntity.status(status).headers(headers).body(responseBody);
+            }
+
+            // Let Tomcat send the file with sendfile (zero-copy) when the connector supports it
+            if (HttpMethod.GET.matches(request.getMethod()) && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+                request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+                request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+                return ResponseEntity.status(status).headers(headers).build();
+            }
+
+            // Otherwise transfer the file channel into the response without copying it through the heap
+            StreamingResponseBody responseBody = outputStream -> transferFile(file, position, length, outputStream);
+            return ResponseEntity.status(status).headers(headers).body(responseBody);
         } catch (Exception exception) {
 
             // Log if an error occurs while downloading the PDF
@@ -191,4 +964,88 @@ public class PdfGeneratorController {
             return ResponseEntity.status(500).body(null);
         }
     }
+
+    // Helper method to check if an If-None-Match header matches the entity tag
+    private boolean matchesETag(String ifNoneMatchHeader, String eTag) {
+        if (ifNoneMatchHeader == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatchHeader.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Helper method to transfer a range of a file into the output stream with FileChannel.transferTo
+    private void transferFile(Path file, long position, long length, OutputStream outputStream) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = fileChannel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // Helper method to release the permit of a streamed response once the async request completes, times out or fails, so that the slot
+    // is not leaked when the body never runs, e.g. when the client disconnects before it starts
+    private void releaseOnCompletion(HttpServletRequest request, PdfRenderLimiter.Permit permit) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(PdfRenderLimiter.Permit.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        permit.close();
+                    }
+                });
+    }
+
+    // Helper method to build the too many requests response of a shed render, with the time after which the client may retry
+    private ResponseEntity<Map<String, Object>> tooManyRequestsResponse(RenderCapacityExceededException renderCapacityExceededException) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(renderCapacityExceededException.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "status", "Error",
+                        "statusCode", 429,
+                        "message", renderCapacityExceededException.getMessage()
+                ));
+    }
+
+    // Helper method to build the bad request response for a template which does not exist
+    private ResponseEntity<Map<String, Object>> unknownTemplateResponse(String templateId) {
+
+        // Log the unknown template
+        logger.error("Unknown PDF template: {}", templateId);
+
+        // Return a bad request response
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "Failure",
+                "statusCode", 400,
+                "message", "Unknown template: " + templateId
+        ));
+    }
+
+    // Helper method to build the bad request response for validation errors
+    private ResponseEntity<Map<String, Object>> validationErrorResponse(BindingResult bindingResult) {
+
+        // Extract the field names with validation errors
+        String errorFields = stringUtil.getFormattedErrorMessage(bindingResult.getFieldErrors());
+
+        // Log the validation errors in the PDF data
+        logger.error("Validation errors in the PDF data: {}", errorFields);
+
+        // Return a bad request response with the formatted error messages
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "Failure",
+                "statusCode", 400,
+                "message", errorFields
+        ));
+    }
 }
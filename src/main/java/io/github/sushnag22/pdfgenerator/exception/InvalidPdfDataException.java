@@ -0,0 +1,10 @@
+package io.github.sushnag22.pdfgenerator.exception;
+
+// Exception thrown when PDF data read from a stream is invalid, with a message which can be returned to the client
+public class InvalidPdfDataException extends Exception {
+
+    // Constructor to initialize the message
+    public InvalidPdfDataException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.sushnag22.pdfgenerator.exception;
+
+// Exception thrown when a render is shed because the render capacity and its queue are full, with the time after which the client may retry
+public class RenderCapacityExceededException extends Exception {
+
+    // Number of seconds after which the client may retry
+    private final long retryAfterSeconds;
+
+    // Constructor to initialize the message and the retry delay
+    public RenderCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Method to get the number of seconds after which the client may retry
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.sushnag22.pdfgenerator.health;
+
+import io.github.sushnag22.pdfgenerator.service.PdfRenderLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Health of the render capacity, part of the readiness group so that a load balancer steers the traffic away from a saturated instance
+@Component
+public class RenderCapacityHealthIndicator implements HealthIndicator {
+
+    // Adaptive limit of the concurrent renders
+    private final PdfRenderLimiter pdfRenderLimiter;
+
+    // Constructor based dependency injection
+    @Autowired
+    public RenderCapacityHealthIndicator(PdfRenderLimiter pdfRenderLimiter) {
+        this.pdfRenderLimiter = pdfRenderLimiter;
+    }
+
+    // Method to report the instance as out of service while it is saturated, with the state of the limiter
+    @Override
+    public Health health() {
+        Health.Builder builder = pdfRenderLimiter.isSaturated() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("limit", pdfRenderLimiter.getLimit())
+                .withDetail("inFlight", pdfRenderLimiter.getInFlight())
+                .withDetail("queued", pdfRenderLimiter.getQueued())
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package io.github.sushnag22.pdfgenerator.model;
 import io.github.sushnag22.pdfgenerator.validation.ItemDetailsValidation;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
@@ -46,4 +47,15 @@ public class PdfDataModel {
     @Valid
     @ItemDetailsValidation
     private List<ItemDetailsModel> items;
+
+    // Template used to render the PDF, the default template if not set
+    @Size(max = 50, message = "Template id must be at most 50 characters")
+    @Pattern(regexp = "[A-Za-z0-9_-]+", message = "Template id must only contain letters, digits, underscores and hyphens")
+    private String templateId;
+
+    // Constructor for the PDF data rendered with the default template
+    public PdfDataModel(String sellerName, String sellerAddress, String sellerGstin, String buyerName, String buyerAddress,
+                        String buyerGstin, List<ItemDetailsModel> items) {
+        this(sellerName, sellerAddress, sellerGstin, buyerName, buyerAddress, buyerGstin, items, null);
+    }
 }
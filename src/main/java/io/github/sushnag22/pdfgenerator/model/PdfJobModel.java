@@ -0,0 +1,39 @@
+package io.github.sushnag22.pdfgenerator.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@ToString
+
+// Data model for an asynchronous PDF render job, updated by the worker thread and read by the polling requests
+public class PdfJobModel {
+
+    // Attributes of the job model
+    private final String jobId;
+
+    private final Instant submittedAt;
+
+    private volatile PdfJobStatus status = PdfJobStatus.QUEUED;
+
+    private volatile String fileName;
+
+    private volatile String errorMessage;
+
+    private volatile Instant finishedAt;
+
+    // Constructor to initialize a queued job
+    public PdfJobModel(String jobId, Instant submittedAt) {
+        this.jobId = jobId;
+        this.submittedAt = submittedAt;
+    }
+
+    // Method to check if the job is finished (successfully or not)
+    public boolean isFinished() {
+        return status == PdfJobStatus.DONE || status == PdfJobStatus.FAILED;
+    }
+}
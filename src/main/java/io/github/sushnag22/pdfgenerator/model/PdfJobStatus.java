@@ -0,0 +1,9 @@
+package io.github.sushnag22.pdfgenerator.model;
+
+// Status of an asynchronous PDF render job
+public enum PdfJobStatus {
+    QUEUED,
+    RENDERING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,136 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics.Stage;
+import io.github.sushnag22.pdfgenerator.util.StringUtil;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class PdfBatchService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfBatchService.class);
+
+    // Service to generate and store the PDF
+    private final PdfDocumentService pdfDocumentService;
+
+    // Service to format the field names
+    private final StringUtil stringUtil;
+
+    // Validator to validate each PDF data on its own
+    private final SpringValidatorAdapter springValidatorAdapter;
+
+    // Bounded executor used to render the PDFs in parallel
+    private final TaskExecutor pdfRenderExecutor;
+
+    // Latency metrics of the render pipeline
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfBatchService(PdfDocumentService pdfDocumentService, StringUtil stringUtil, Validator validator,
+                           @Qualifier("pdfRenderExecutor") TaskExecutor pdfRenderExecutor, PdfRenderMetrics pdfRenderMetrics) {
+        this.pdfDocumentService = pdfDocumentService;
+        this.stringUtil = stringUtil;
+        this.springValidatorAdapter = new SpringValidatorAdapter(validator);
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.pdfRenderMetrics = pdfRenderMetrics;
+    }
+
+    // Method to validate, generate and store a batch of PDFs in parallel, returns one result per entry in the same order
+    public List<Map<String, Object>> generateAndStoreBatch(List<PdfDataModel> pdfDataModels) {
+
+        // Submit every entry on its own, so that a failed entry does not abort the others
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(pdfDataModels.size());
+        for (int index = 0; index < pdfDataModels.size(); index++) {
+            int entryIndex = index;
+            PdfDataModel pdfDataModel = pdfDataModels.get(index);
+            futures.add(CompletableFuture.supplyAsync(() -> generateAndStore(entryIndex, pdfDataModel), pdfRenderExecutor));
+        }
+
+        // Collect the results in the order of the entries
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    // Method to validate, generate and store a single entry of the batch
+    public Map<String, Object> generateAndStore(int index, PdfDataModel pdfDataModel) {
+        try {
+
+            // Check if the entry is present
+            if (pdfDataModel == null) {
+                return failureResult(index, "PDF data is mandatory");
+            }
+
+            // Check if there are validation errors in the PDF data
+            BindingResult bindingResult = new BeanPropertyBindingResult(pdfDataModel, "pdfDataModel");
+            Timer.Sample validationSample = pdfRenderMetrics.start();
+            springValidatorAdapter.validate(pdfDataModel, bindingResult);
+            pdfRenderMetrics.stop(validationSample, Stage.VALIDATION);
+            if (bindingResult.hasErrors()) {
+                return failureResult(index, stringUtil.getFormattedErrorMessage(bindingResult.getFieldErrors()));
+            }
+
+            // Generate and store the PDF, the entries are bounded by the render executor so they wait for the render capacity instead of being shed
+            String fileName = pdfDocumentService.generateAndStore(pdfDataModel, false);
+
+            if (fileName.isEmpty()) {
+                return errorResult(index, "Error generating hash for PDF data");
+            }
+
+            return Map.of(
+                    "index", index,
+                    "status", "Success",
+                    "statusCode", 200,
+                    "message", "PDF generated and stored successfully",
+                    "fileName", fileName
+            );
+        } catch (InvalidPdfDataException invalidPdfDataException) {
+
+            // The template is resolved once by the render, an unknown or removed template is an error of the entry
+            return failureResult(index, invalidPdfDataException.getMessage());
+        } catch (Exception exception) {
+
+            // Log if an error occurs while generating and storing the PDF
+            logger.error("Error generating and storing PDF for batch entry {}", index, exception);
+            return errorResult(index, "Error generating and storing PDF");
+        }
+    }
+
+    // Helper method to build the result of an entry with invalid input data
+    private Map<String, Object> failureResult(int index, String message) {
+        return Map.of(
+                "index", index,
+                "status", "Failure",
+                "statusCode", 400,
+                "message", message
+        );
+    }
+
+    // Helper method to build the result of an entry which failed to render
+    private Map<String, Object> errorResult(int index, String message) {
+        return Map.of(
+                "index", index,
+                "status", "Error",
+                "statusCode", 500,
+                "message", message
+        );
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class PdfBulkService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfBulkService.class);
+
+    // Maximum number of records parsed and not yet answered (0 or less uses twice the number of available processors)
+    @Value("${pdf.bulk.max-in-flight}")
+    private int MAX_IN_FLIGHT;
+
+    // Object mapper configured by Spring, used to read each record and to write each result line
+    private final ObjectMapper objectMapper;
+
+    // Batch service validating, generating and storing a single entry
+    private final PdfBatchService pdfBatchService;
+
+    // Bounded executor used to render the PDFs in parallel
+    private final TaskExecutor pdfRenderExecutor;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfBulkService(ObjectMapper objectMapper, PdfBatchService pdfBatchService,
+                          @Qualifier("pdfRenderExecutor") TaskExecutor pdfRenderExecutor) {
+        this.objectMapper = objectMapper;
+        this.pdfBatchService = pdfBatchService;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+    }
+
+    // Method to generate and store the PDF of every NDJSON record of the input stream, writing one NDJSON result line per record as soon as it finishes
+    public void generateAndStore(InputStream inputStream, OutputStream outputStream) throws IOException, InterruptedException {
+        int maxInFlight = MAX_IN_FLIGHT > 0 ? MAX_IN_FLIGHT : Runtime.getRuntime().availableProcessors() * 2;
+
+        // Records are only read while a permit is free, so a fast client is slowed down by the socket instead of queueing renders
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicReference<IOException> writeFailure = new AtomicReference<>();
+
+        int index = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while (writeFailure.get() == null && (line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int entryIndex = index++;
+            String record = line;
+
+            inFlight.acquire();
+            try {
+                CompletableFuture.supplyAsync(() -> generateAndStore(entryIndex, record), pdfRenderExecutor)
+                        .whenComplete((result, throwable) -> {
+                            try {
+                                Map<String, Object> entryResult = result != null ? result
+                                        : errorResult(entryIndex, "Error generating and storing PDF");
+                                if ("Success".equals(entryResult.get("status"))) {
+                                    succeeded.incrementAndGet();
+                                }
+                                writeLine(outputStream, entryResult);
+                            } catch (IOException exception) {
+                                writeFailure.compareAndSet(null, exception);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+            } catch (RuntimeException exception) {
+                inFlight.release();
+                throw exception;
+            }
+        }
+
+        // Wait for the records in flight, their results are written to the response which must stay open until then
+        inFlight.acquire(maxInFlight);
+        if (writeFailure.get() != null) {
+            throw writeFailure.get();
+        }
+
+        // Log and write the outcome of the whole stream as the last line
+        logger.info("Bulk processed: {} of {} PDFs generated and stored", succeeded.get(), index);
+        writeLine(outputStream, Map.of(
+                "status", "Success",
+                "statusCode", 200,
+                "message", "Bulk processed: " + succeeded.get() + " of " + index + " PDFs generated and stored",
+                "processed", index,
+                "succeeded", succeeded.get()
+        ));
+    }
+
+    // Helper method to parse, validate, generate and store a single record
+    private Map<String, Object> generateAndStore(int index, String record) {
+        PdfDataModel pdfDataModel;
+        try {
+            pdfDataModel = objectMapper.readValue(record, PdfDataModel.class);
+        } catch (JsonProcessingException exception) {
+            return Map.of(
+                    "index", index,
+                    "status", "Failure",
+                    "statusCode", 400,
+                    "message", "Malformed JSON in the PDF data"
+            );
+        }
+        return pdfBatchService.generateAndStore(index, pdfDataModel);
+    }
+
+    // Helper method to write a result as a single line and flush it, the lines of concurrent records are never interleaved
+    private void writeLine(OutputStream outputStream, Map<String, Object> result) throws IOException {
+        byte[] line = objectMapper.writeValueAsBytes(result);
+        synchronized (outputStream) {
+            outputStream.write(line);
+            outputStream.write('\n');
+            outputStream.flush();
+        }
+    }
+
+    // Helper method to build the result of a record which failed unexpectedly
+    private Map<String, Object> errorResult(int index, String message) {
+        return Map.of(
+                "index", index,
+                "status", "Error",
+                "statusCode", 500,
+                "message", message
+        );
+    }
+}
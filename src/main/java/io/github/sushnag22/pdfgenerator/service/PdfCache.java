@@ -0,0 +1,106 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+@Service
+public class PdfCache {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfCache.class);
+
+    // Maximum number of bytes kept in the cache, 0 to disable the cache
+    @Value("${pdf.cache.max-bytes}")
+    private long MAX_BYTES;
+
+    // Maximum size of a single cached PDF, larger files are always read from storage
+    @Value("${pdf.cache.max-entry-bytes}")
+    private int MAX_ENTRY_BYTES;
+
+    // Whether the cached PDFs are kept in direct buffers outside the heap
+    @Value("${pdf.cache.off-heap}")
+    private boolean OFF_HEAP;
+
+    // Registry to expose the hit, miss and eviction metrics
+    private final MeterRegistry meterRegistry;
+
+    // Cached PDF content by file name, null if the cache is disabled
+    private Cache<String, ByteBuffer> cache;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Method to create the cache, bounded by the total size of the cached PDFs
+    @PostConstruct
+    public void init() {
+        if (MAX_BYTES <= 0) {
+            logger.info("PDF cache disabled");
+            return;
+        }
+
+        // W-TinyLFU eviction keeps the PDFs which are downloaded repeatedly over the ones which are downloaded once
+        cache = Caffeine.newBuilder()
+                .maximumWeight(MAX_BYTES)
+                .weigher((String fileName, ByteBuffer content) -> content.capacity())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pdf.cache");
+        logger.info("PDF cache created with {} bytes ({})", MAX_BYTES, OFF_HEAP ? "off-heap" : "heap");
+    }
+
+    // Method to check if a PDF of the given size can be cached
+    public boolean accepts(long size) {
+        return cache != null && size <= MAX_ENTRY_BYTES;
+    }
+
+    // Method to get the maximum size of a single cached PDF, 0 if the cache is disabled
+    public int getMaxEntryBytes() {
+        return cache == null ? 0 : MAX_ENTRY_BYTES;
+    }
+
+    // Method to get a cached PDF, the returned buffer is read only and positioned at the start of the content
+    public Optional<ByteBuffer> get(String fileName) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(fileName))
+                .map(ByteBuffer::asReadOnlyBuffer);
+    }
+
+    // Method to cache a PDF, ignored if the cache is disabled or the PDF is too large
+    public void put(String fileName, byte[] content) {
+        if (content == null || !accepts(content.length)) {
+            return;
+        }
+
+        // Direct buffers are released by the garbage collector once evicted, but their content is never copied or scanned
+        ByteBuffer buffer;
+        if (OFF_HEAP) {
+            buffer = ByteBuffer.allocateDirect(content.length).put(content).flip();
+        } else {
+            buffer = ByteBuffer.wrap(content);
+        }
+        cache.put(fileName, buffer);
+    }
+
+    // Method to remove a PDF which is no longer stored
+    public void invalidate(String fileName) {
+        if (cache != null) {
+            cache.invalidate(fileName);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.RenderCapacityExceededException;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics.Stage;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorage;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageEntry;
+import io.github.sushnag22.pdfgenerator.util.CappedByteArrayOutputStream;
+import io.github.sushnag22.pdfgenerator.util.SingleFlight;
+import io.github.sushnag22.pdfgenerator.util.TeeOutputStream;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class PdfDocumentService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfDocumentService.class);
+
+    // Service to generate the PDF
+    private final PdfGeneratorService pdfGeneratorService;
+
+    // Storage backend of the PDF files
+    private final PdfStorage pdfStorage;
+
+    // Index of the stored PDF files, which avoids a file system call per request
+    private final PdfStorageIndex pdfStorageIndex;
+
+    // Cache of recently generated and downloaded PDF files
+    private final PdfCache pdfCache;
+
+    // Latency and size metrics of the render pipeline
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Adaptive limit of the concurrent renders, which sheds the renders beyond its queue
+    private final PdfRenderLimiter pdfRenderLimiter;
+
+    // Renders in flight keyed by file name, so that identical concurrent requests render only once
+    private final SingleFlight<String, String> renderFlights = new SingleFlight<>();
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfDocumentService(PdfGeneratorService pdfGeneratorService, PdfStorage pdfStorage,
+                              PdfStorageIndex pdfStorageIndex, PdfCache pdfCache, PdfRenderMetrics pdfRenderMetrics,
+                              PdfRenderLimiter pdfRenderLimiter, MeterRegistry meterRegistry) {
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.pdfStorage = pdfStorage;
+        this.pdfStorageIndex = pdfStorageIndex;
+        this.pdfCache = pdfCache;
+        this.pdfRenderMetrics = pdfRenderMetrics;
+        this.pdfRenderLimiter = pdfRenderLimiter;
+
+        // Expose the number of renders which were coalesced with an identical in-flight render
+        FunctionCounter.builder("pdf.render.coalesced", renderFlights, SingleFlight::getCoalescedCount)
+                .description("Number of generate requests which waited for an identical in-flight render")
+                .register(meterRegistry);
+    }
+
+    // Method to generate the PDF and store it (if not already stored), returns the file name or an empty string if it cannot be generated
+    public String generateAndStore(PdfDataModel pdfDataModel) throws Exception {
+        return generateAndStore(pdfDataModel, true);
+    }
+
+    // Method to generate and store the PDF, the render is shed when the render capacity is exceeded or waits for it if shed is false
+    public String generateAndStore(PdfDataModel pdfDataModel, boolean shed) throws Exception {
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        return generateAndStore(pdfDataModel, items.size(), items, shed);
+    }
+
+    // Method to generate and store the PDF from its seller and buyer details and a separate source of its items, which is read at most twice
+    public String generateAndStore(PdfDataModel pdfDataModel, int itemCount, Iterable<ItemDetailsModel> items) throws Exception {
+        return generateAndStore(pdfDataModel, itemCount, items, true);
+    }
+
+    // Method to generate and store the PDF from a separate source of its items, shed only at the HTTP admission points.
+    // The internal pools (jobs, batches and bulk streams) are already bounded by their own queues, so they wait for the render capacity instead.
+    public String generateAndStore(PdfDataModel pdfDataModel, int itemCount, Iterable<ItemDetailsModel> items, boolean shed) throws Exception {
+
+        // Resolve the template once, so that the PDF is rendered with the version its file name is hashed from
+        PdfTemplateRegistry.Template template = pdfGeneratorService.resolveTemplate(pdfDataModel);
+
+        // Generate the unique name for the PDF file based on the data
+        String fileName = pdfGeneratorService.generateFileName(pdfDataModel, template, itemCount, items);
+
+        if (fileName.isEmpty()) {
+            return fileName;
+        }
+
+        // Check if the PDF file already exists
+        if (pdfStorageIndex.contains(fileName)) {
+
+            // Log if the PDF file already exists
+            logger.info("PDF already exists: {}", fileName);
+            pdfRenderMetrics.recordDeduplicated();
+            return fileName;
+        }
+
+        // Render the PDF once, concurrent requests for the same file wait for the first one
+        while (true) {
+            try {
+                return renderFlights.execute(fileName, () -> {
+
+                    // The PDF may have been stored by a render which finished just before this one started
+                    if (!pdfStorageIndex.contains(fileName)) {
+
+                        // Only the render itself takes a slot of the limit, the requests answered from storage are never shed
+                        try (PdfRenderLimiter.Permit permit = shed ? pdfRenderLimiter.acquire() : pdfRenderLimiter.acquireBlocking()) {
+                            writePdf(pdfDataModel, template, itemCount, items, fileName, null);
+                            permit.complete();
+                        }
+                    }
+                    return fileName;
+                });
+            } catch (RenderCapacityExceededException renderCapacityExceededException) {
+
+                // A render which must not be shed may have waited for an identical HTTP render which was, it renders itself instead
+                if (shed) {
+                    throw renderCapacityExceededException;
+                }
+            }
+        }
+    }
+
+    // Method to reserve a slot of the render limit before a PDF is streamed, null if the PDF is already stored and will not be rendered
+    public PdfRenderLimiter.Permit reserveRender(String fileName) throws RenderCapacityExceededException, InterruptedException {
+        return pdfStorageIndex.contains(fileName) ? null : pdfRenderLimiter.acquire();
+    }
+
+    // Method to stream the PDF into the output stream, from storage if it exists, otherwise rendered with the version of the template its
+    // file name was hashed from and optionally stored at the same time
+    public void streamPdf(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, String fileName, OutputStream outputStream,
+                          boolean store) throws Exception {
+
+        if (pdfStorageIndex.contains(fileName)) {
+            streamStoredPdf(fileName, outputStream);
+        } else if (store) {
+
+            // Render the PDF once, a request coalesced with an identical render streams the stored PDF once that render is done
+            while (true) {
+                AtomicBoolean leader = new AtomicBoolean();
+                AtomicBoolean rendered = new AtomicBoolean();
+                try {
+                    renderFlights.execute(fileName, () -> {
+                        leader.set(true);
+                        if (!pdfStorageIndex.contains(fileName)) {
+                            writePdf(pdfDataModel, template, pdfDataModel.getItems().size(), pdfDataModel.getItems(), fileName, outputStream);
+                            rendered.set(true);
+                        }
+                        return fileName;
+                    });
+                } catch (Exception exception) {
+
+                    // The render this request waited for failed, e.g. it was shed or its client went away, so this request renders
+                    // itself with the slot of the limit it already holds
+                    if (leader.get()) {
+                        throw exception;
+                    }
+                    continue;
+                }
+                if (!rendered.get()) {
+                    streamStoredPdf(fileName, outputStream);
+                }
+                return;
+            }
+        } else {
+            pdfGeneratorService.writePdf(pdfDataModel, template, outputStream);
+        }
+    }
+
+    // Method to find a stored PDF file which can be read
+    public Optional<PdfStorageEntry> findStoredPdf(String fileName) throws IOException {
+        return pdfStorage.stat(fileName);
+    }
+
+    // Method to get a cached PDF file, without accessing the storage
+    public Optional<ByteBuffer> findCachedPdf(String fileName) {
+        return pdfCache.get(fileName);
+    }
+
+    // Method to check if a PDF file of the given size is small enough to be cached
+    public boolean isCacheable(long size) {
+        return pdfCache.accepts(size);
+    }
+
+    // Method to stream a stored PDF file into the output stream, and to keep it in the cache for the next downloads if it is small enough
+    public void streamIntoCache(String fileName, OutputStream outputStream) throws IOException {
+        CappedByteArrayOutputStream cacheOutputStream = new CappedByteArrayOutputStream(pdfCache.getMaxEntryBytes());
+        try (InputStream inputStream = pdfStorage.openInputStream(fileName)) {
+            inputStream.transferTo(new TeeOutputStream(outputStream, cacheOutputStream));
+        }
+        pdfCache.put(fileName, cacheOutputStream.toByteArray());
+    }
+
+    // Method to open a stored PDF file for reading, the stream must be closed
+    public InputStream openStoredPdf(String fileName) throws IOException {
+        return pdfStorage.openInputStream(fileName);
+    }
+
+    // Helper method to stream a stored PDF from the cache, or from the storage while it is copied into the cache
+    private void streamStoredPdf(String fileName, OutputStream outputStream) throws IOException {
+        pdfRenderMetrics.recordDeduplicated();
+        Optional<ByteBuffer> cachedPdf = pdfCache.get(fileName);
+        if (cachedPdf.isPresent()) {
+            Channels.newChannel(outputStream).write(cachedPdf.get());
+        } else {
+            streamIntoCache(fileName, outputStream);
+        }
+    }
+
+    // Helper method to render the PDF into the storage (and to the given output stream, if any), the file only becomes visible once complete
+    private void writePdf(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, int itemCount, Iterable<ItemDetailsModel> items,
+                          String fileName, OutputStream teeOutputStream) throws Exception {
+
+        // Keep a copy of the PDF for the cache, since a freshly generated PDF is usually downloaded soon after
+        CappedByteArrayOutputStream cacheOutputStream = new CappedByteArrayOutputStream(pdfCache.getMaxEntryBytes());
+
+        // The store stage includes the render, which is streamed into the storage as it is produced
+        Timer.Sample storeSample = pdfRenderMetrics.start();
+        pdfStorage.write(fileName, outputStream -> {
+            OutputStream storageOutputStream = new TeeOutputStream(outputStream, cacheOutputStream);
+            pdfGeneratorService.writePdf(pdfDataModel, template, itemCount, items,
+                    teeOutputStream == null ? storageOutputStream : new TeeOutputStream(teeOutputStream, storageOutputStream));
+        });
+        pdfRenderMetrics.stop(storeSample, Stage.STORE);
+        pdfStorageIndex.add(fileName);
+        pdfCache.put(fileName, cacheOutputStream.toByteArray());
+
+        // Log if the PDF is generated and stored successfully
+        logger.info("PDF generated and saved: {}", fileName);
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.storage.PdfStorage;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageEntry;
+import io.github.sushnag22.pdfgenerator.util.PdfFileNames;
+import io.github.sushnag22.pdfgenerator.util.StoredZipWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Service
+public class PdfExportService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfExportService.class);
+
+    // Size of the buffer the files are read through to compute their CRC-32
+    private static final int CRC_BUFFER_SIZE = 64 * 1024;
+
+    // Storage backend of the PDF files
+    private final PdfStorage pdfStorage;
+
+    // Index of the stored PDF files, which avoids a file system call per requested file
+    private final PdfStorageIndex pdfStorageIndex;
+
+    // Cache of recently generated and downloaded PDF files
+    private final PdfCache pdfCache;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfExportService(PdfStorage pdfStorage, PdfStorageIndex pdfStorageIndex, PdfCache pdfCache) {
+        this.pdfStorage = pdfStorage;
+        this.pdfStorageIndex = pdfStorageIndex;
+        this.pdfCache = pdfCache;
+    }
+
+    // Method to find the first requested file name which is not a stored PDF file, empty if all of them can be exported
+    public Optional<String> findMissing(List<String> fileNames) throws IOException {
+        for (String fileName : fileNames) {
+            if (!PdfFileNames.isValid(fileName) || !pdfStorageIndex.isStored(fileName)) {
+                return Optional.of(fileName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Method to select the stored PDF files whose hash starts with the prefix and which were stored in the time range, sorted by name
+    public List<String> selectFileNames(String hashPrefix, Instant from, Instant to) throws IOException {
+        // The storage is listed rather than the index, so that the files stored by other instances sharing it are exported too
+        List<String> fileNames;
+        try (Stream<String> storedFileNames = pdfStorageIndex.listStored()) {
+            fileNames = storedFileNames
+                    .filter(fileName -> hashPrefix == null || PdfFileNames.hashOf(fileName).startsWith(hashPrefix))
+                    .sorted()
+                    .toList();
+        }
+        if (from == null && to == null) {
+            return fileNames;
+        }
+
+        // The modification time is only known by the storage, so it is only read when a time range is requested
+        List<String> selectedFileNames = new ArrayList<>();
+        for (String fileName : fileNames) {
+            Optional<PdfStorageEntry> storageEntry = pdfStorage.stat(fileName);
+            if (storageEntry.isPresent()
+                    && (from == null || !storageEntry.get().lastModified().isBefore(from))
+                    && (to == null || storageEntry.get().lastModified().isBefore(to))) {
+                selectedFileNames.add(fileName);
+            }
+        }
+        return selectedFileNames;
+    }
+
+    // Method to write a ZIP archive with one STORED entry per PDF file into the output stream, the PDFs are already compressed
+    public void export(List<String> fileNames, OutputStream outputStream) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        StoredZipWriter storedZipWriter = new StoredZipWriter(channel);
+        ByteBuffer crcBuffer = ByteBuffer.allocateDirect(CRC_BUFFER_SIZE);
+        byte[] streamBuffer = new byte[CRC_BUFFER_SIZE];
+
+        for (String fileName : fileNames) {
+            Optional<PdfStorageEntry> storageEntry = pdfStorage.stat(fileName);
+            if (storageEntry.isEmpty()) {
+                throw new NoSuchFileException(fileName);
+            }
+            Instant lastModified = storageEntry.get().lastModified();
+
+            // Write the cached content as is
+            Optional<ByteBuffer> cachedPdf = pdfCache.get(fileName);
+            if (cachedPdf.isPresent()) {
+                writeEntry(storedZipWriter, fileName, cachedPdf.get(), lastModified);
+                continue;
+            }
+
+            // Read a local file twice through its channel, once for the CRC-32 and once transferred into the response
+            if (storageEntry.get().localPath() != null) {
+                try (FileChannel fileChannel = FileChannel.open(storageEntry.get().localPath(), StandardOpenOption.READ)) {
+                    long size = fileChannel.size();
+                    CRC32 crc32 = new CRC32();
+                    long position = 0;
+                    while (position < size) {
+                        crcBuffer.clear();
+                        int read = fileChannel.read(crcBuffer, position);
+                        if (read < 0) {
+                            break;
+                        }
+                        crc32.update(crcBuffer.flip());
+                        position += read;
+                    }
+                    storedZipWriter.writeEntry(fileName, size, crc32.getValue(), lastModified,
+                            target -> transferFile(fileChannel, size, target));
+                }
+                continue;
+            }
+
+            // Read a file of the other backends twice as well, once for the CRC-32 and once copied into the response, so that it is never
+            // held in memory
+            CRC32 crc32 = new CRC32();
+            long size = 0;
+            try (InputStream inputStream = pdfStorage.openInputStream(fileName)) {
+                int read;
+                while ((read = inputStream.read(streamBuffer)) >= 0) {
+                    crc32.update(streamBuffer, 0, read);
+                    size += read;
+                }
+            }
+            long entrySize = size;
+            storedZipWriter.writeEntry(fileName, entrySize, crc32.getValue(), lastModified,
+                    target -> copyStoredFile(fileName, entrySize, streamBuffer, target));
+        }
+        storedZipWriter.finish();
+
+        // Log the exported archive
+        logger.info("PDFs exported: {} files", fileNames.size());
+    }
+
+    // Helper method to write an entry out of a buffer
+    private void writeEntry(StoredZipWriter storedZipWriter, String fileName, ByteBuffer content, Instant lastModified) throws IOException {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content.duplicate());
+        storedZipWriter.writeEntry(fileName, content.remaining(), crc32.getValue(), lastModified, target -> {
+            while (content.hasRemaining()) {
+                target.write(content);
+            }
+        });
+    }
+
+    // Helper method to copy a whole stored file into the channel, which must have the size its entry was written with
+    private void copyStoredFile(String fileName, long size, byte[] buffer, WritableByteChannel target) throws IOException {
+        OutputStream outputStream = Channels.newOutputStream(target);
+        long copied = 0;
+        try (InputStream inputStream = pdfStorage.openInputStream(fileName)) {
+            int read;
+            while (copied < size && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, size - copied))) >= 0) {
+                outputStream.write(buffer, 0, read);
+                copied += read;
+            }
+        }
+        if (copied != size) {
+            throw new IOException("PDF file truncated while exporting");
+        }
+    }
+
+    // Helper method to transfer a whole file into the channel with FileChannel.transferTo
+    private void transferFile(FileChannel fileChannel, long size, WritableByteChannel target) throws IOException {
+        long position = 0;
+        while (position < size) {
+            long transferred = fileChannel.transferTo(position, size - position, target);
+            if (transferred <= 0) {
+                throw new IOException("PDF file truncated while exporting");
+            }
+            position += transferred;
+        }
+    }
+}
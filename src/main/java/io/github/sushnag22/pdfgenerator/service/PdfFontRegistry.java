@@ -0,0 +1,95 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.lowagie.text.pdf.BaseFont;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+public class PdfFontRegistry {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfFontRegistry.class);
+
+    // Depth up to which the font directories are searched (e.g. /usr/share/fonts/truetype/noto/<font>.ttf)
+    private static final int MAX_DEPTH = 3;
+
+    // Comma separated directories with the fonts to register on every renderer (empty to use the default fonts only)
+    @Value("${pdf.fonts.directories}")
+    private String FONT_DIRECTORIES;
+
+    // Paths of the fonts which were parsed successfully
+    private final List<String> fontPaths = new ArrayList<>();
+
+    // Method to parse the fonts once at startup
+    @PostConstruct
+    public void load() {
+        if (FONT_DIRECTORIES == null || FONT_DIRECTORIES.isBlank()) {
+            return;
+        }
+
+        for (String fontDirectory : FONT_DIRECTORIES.split(",")) {
+            Path directory = Paths.get(fontDirectory.trim());
+            if (!Files.isDirectory(directory)) {
+                logger.warn("Font directory not found: {}", directory);
+                continue;
+            }
+
+            try (Stream<Path> files = Files.walk(directory, MAX_DEPTH)) {
+                files.filter(Files::isRegularFile)
+                        .filter(PdfFontRegistry::isFontFile)
+                        .sorted()
+                        .forEach(this::loadFont);
+            } catch (Exception exception) {
+                // Log the error if a font directory cannot be listed, the fonts found so far are still registered
+                logger.error("Failed to list font directory: {}", directory, exception);
+            }
+        }
+
+        logger.info("PDF font registry loaded with {} fonts", fontPaths.size());
+    }
+
+    // Method to register the fonts on the font resolver of a renderer
+    public void registerFonts(ITextFontResolver fontResolver) throws Exception {
+        for (String fontPath : fontPaths) {
+
+            // The font is taken from the font cache filled at startup instead of being parsed again
+            fontResolver.addFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+        }
+    }
+
+    // Method to get the paths of the registered fonts
+    public List<String> getFontPaths() {
+        return List.copyOf(fontPaths);
+    }
+
+    // Helper method to parse a font into the shared font cache, fonts which cannot be embedded are skipped
+    private void loadFont(Path file) {
+        String fontPath = file.toAbsolutePath().toString();
+        try {
+
+            // Identity-H embedding covers every script of the font and only embeds the subset of glyphs used by each document
+            BaseFont.createFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            fontPaths.add(fontPath);
+        } catch (Exception exception) {
+            logger.warn("Skipping font which cannot be embedded: {} ({})", fontPath, exception.getMessage());
+        }
+    }
+
+    // Helper method to check if a file is a TrueType or OpenType font
+    private static boolean isFontFile(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return fileName.endsWith(".ttf") || fileName.endsWith(".otf");
+    }
+}
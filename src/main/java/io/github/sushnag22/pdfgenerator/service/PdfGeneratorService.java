@@ -1,26 +1,34 @@
 package io.github.sushnag22.pdfgenerator.service;
 
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
 import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
 import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics.Stage;
+import io.github.sushnag22.pdfgenerator.util.CanonicalHasher;
+import io.github.sushnag22.pdfgenerator.util.CountingOutputStream;
+import io.github.sushnag22.pdfgenerator.util.ThrottledTemplateReader;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
-import org.thymeleaf.templatemode.TemplateMode;
-import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
-import org.xhtmlrenderer.pdf.ITextRenderer;
+import org.w3c.dom.Document;
+import org.xhtmlrenderer.resource.XMLResource;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 @Service
 public class PdfGeneratorService {
@@ -28,18 +36,62 @@ public class PdfGeneratorService {
     // Logger to log the events
     Logger logger = LoggerFactory.getLogger(PdfGeneratorService.class);
 
+    // Version of the canonical hash format, to be changed whenever the hashed fields change
+    private static final String HASH_FORMAT_VERSION = "pdf-data-v2";
+
     // Directory where all the PDF files will be stored
     @Value("${pdf.storage.path}")
     private String PDF_DIRECTORY;
 
+    // Storage backend of the PDF files, the directory is only used by the local backend
+    @Value("${pdf.storage.backend}")
+    private String STORAGE_BACKEND;
+
     @Value("${item.quantity.unit}")
     private String ITEM_QUANTITY_UNIT;
 
     @Value("${currency.format}")
     private String CURRENCY_FORMAT;
 
-    // Method to create the PDF directory
+    // Message digest algorithm used to hash the PDF data (e.g. SHA-256, or SHA-512/256 which is faster on 64-bit CPUs)
+    @Value("${pdf.hash.algorithm}")
+    private String HASH_ALGORITHM;
+
+    // Number of items above which the invoice is rendered in chunks (0 or less to always render it at once)
+    @Value("${pdf.render.large-document-threshold}")
+    private int LARGE_DOCUMENT_THRESHOLD;
+
+    // Number of items rendered per chunk of a large invoice
+    @Value("${pdf.render.chunk-size}")
+    private int CHUNK_SIZE;
+
+    // Shared template engine which caches the parsed templates across requests
+    private final TemplateEngine templateEngine;
+
+    // Pool of renderers which keep the fonts and parsed stylesheets between documents
+    private final PdfRendererPool pdfRendererPool;
+
+    // Registry of the templates the PDF can be rendered with
+    private final PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Latency and size metrics of the render pipeline
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfGeneratorService(TemplateEngine templateEngine, PdfRendererPool pdfRendererPool, PdfTemplateRegistry pdfTemplateRegistry,
+                               PdfRenderMetrics pdfRenderMetrics) {
+        this.templateEngine = templateEngine;
+        this.pdfRendererPool = pdfRendererPool;
+        this.pdfTemplateRegistry = pdfTemplateRegistry;
+        this.pdfRenderMetrics = pdfRenderMetrics;
+    }
+
+    // Method to create the PDF directory, only for the local backend
     public void createPdfDirectory() {
+        if (!"local".equals(STORAGE_BACKEND)) {
+            return;
+        }
         try {
             // Path to the PDF directory
             Path directory = Paths.get(PDF_DIRECTORY);
@@ -55,8 +107,37 @@ public class PdfGeneratorService {
         }
     }
 
+    // Method to get the current version of the template the PDF is rendered with, to be passed on so that its file name and its
+    // render use the same version
+    public PdfTemplateRegistry.Template resolveTemplate(PdfDataModel pdfDataModel) throws InvalidPdfDataException {
+        return pdfTemplateRegistry.resolve(pdfDataModel.getTemplateId());
+    }
+
     // Method to generate a unique file name for the PDF
     public String generateFileName(PdfDataModel pdfDataModel) {
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        return generateFileName(pdfDataModel, items == null ? -1 : items.size(), items);
+    }
+
+    // Method to generate a unique file name for the PDF rendered with the given version of its template
+    public String generateFileName(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template) {
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        return generateFileName(pdfDataModel, template, items == null ? -1 : items.size(), items);
+    }
+
+    // Method to generate a unique file name for the PDF from its seller and buyer details and a separate source of its items
+    public String generateFileName(PdfDataModel pdfDataModel, int itemCount, Iterable<ItemDetailsModel> items) {
+        try {
+            return generateFileName(pdfDataModel, resolveTemplate(pdfDataModel), itemCount, items);
+        } catch (InvalidPdfDataException invalidPdfDataException) {
+            logger.error("Error while generating file name", invalidPdfDataException);
+            return "";
+        }
+    }
+
+    // Method to generate a unique file name for the PDF rendered with the given version of its template from a separate source of its items
+    public String generateFileName(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, int itemCount,
+                                   Iterable<ItemDetailsModel> items) {
         try {
             // Create a descriptive part of the file name (e.g., based on seller and buyer)
             String sellerName = pdfDataModel.getSellerName().replaceAll("[^a-zA-Z0-9]", "_");
@@ -67,7 +148,9 @@ public class PdfGeneratorService {
             buyerName = buyerName.length() > 20 ? buyerName.substring(0, 20) : buyerName;
 
             // Generate the hash for the PDF data
-            String dataHash = hashPdfData(pdfDataModel);
+            Timer.Sample hashSample = pdfRenderMetrics.start();
+            String dataHash = hashPdfData(pdfDataModel, template, itemCount, items);
+            pdfRenderMetrics.stop(hashSample, Stage.HASH);
 
             // Combine the descriptive part with the hash
             String fileName = sellerName + "_" + buyerName + "_" + dataHash + ".pdf";
@@ -82,21 +165,49 @@ public class PdfGeneratorService {
 
     // Method to hash the PDF data
     public String hashPdfData(PdfDataModel pdfDataModel) {
-        try {
-            // Convert the PDF data to a string
-            String dataString = pdfDataModel.toString();
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        return hashPdfData(pdfDataModel, items == null ? -1 : items.size(), items);
+    }
 
-            // Hash the PDF data using SHA-256 algorithm
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    // Method to hash the seller and buyer details of the PDF data with a separate source of its items (a count of -1 stands for no items)
+    public String hashPdfData(PdfDataModel pdfDataModel, int itemCount, Iterable<ItemDetailsModel> items) {
+        try {
+            return hashPdfData(pdfDataModel, resolveTemplate(pdfDataModel), itemCount, items);
+        } catch (InvalidPdfDataException invalidPdfDataException) {
+            logger.error("Error while hashing PDF data", invalidPdfDataException);
+            return "";
+        }
+    }
 
-            // Generate the hash for the PDF data
-            byte[] hash = digest.digest(dataString.getBytes());
+    // Method to hash the PDF data rendered with the given version of its template, with a separate source of its items
+    public String hashPdfData(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, int itemCount,
+                              Iterable<ItemDetailsModel> items) {
+        try {
+            // Feed the fields of the PDF data straight into the digest in a canonical form, the template and its version first,
+            // so that a stored PDF is never served for another layout
+            CanonicalHasher canonicalHasher = new CanonicalHasher(MessageDigest.getInstance(HASH_ALGORITHM))
+                    .putString(HASH_FORMAT_VERSION)
+                    .putString(template.id())
+                    .putString(template.version())
+                    .putString(pdfDataModel.getSellerName())
+                    .putString(pdfDataModel.getSellerAddress())
+                    .putString(pdfDataModel.getSellerGstin())
+                    .putString(pdfDataModel.getBuyerName())
+                    .putString(pdfDataModel.getBuyerAddress())
+                    .putString(pdfDataModel.getBuyerGstin());
 
-            // Base64 encode the hash and sanitize it for file storage
-            String base64Hash = Base64.getEncoder().encodeToString(hash);
+            canonicalHasher.putInt(itemCount);
+            if (itemCount >= 0) {
+                for (ItemDetailsModel itemDetailsModel : items) {
+                    canonicalHasher.putString(itemDetailsModel.getName())
+                            .putInteger(itemDetailsModel.getQuantity())
+                            .putDecimal(itemDetailsModel.getRate())
+                            .putDecimal(itemDetailsModel.getAmount());
+                }
+            }
 
-            // Replace problematic characters for file paths
-            return base64Hash.replace("/", "_").replace("\\", "_").replace("=", "");
+            // Hexadecimal hash which is safe for file storage on any file system
+            return canonicalHasher.toHex();
         } catch (Exception exception) {
             // Log the error if hashing fails
             logger.error("Error while hashing PDF data", exception);
@@ -107,43 +218,9 @@ public class PdfGeneratorService {
     // Method to generate the PDF from the HTML template
     public ByteArrayOutputStream generatePdfFromHtml(PdfDataModel pdfDataModel) {
         try {
-            // Use Thymeleaf template engine to process the HTML template
-            ClassLoaderTemplateResolver classLoaderTemplateResolver = new ClassLoaderTemplateResolver();
-            classLoaderTemplateResolver.setSuffix(".html");
-            classLoaderTemplateResolver.setTemplateMode(TemplateMode.HTML);
-            TemplateEngine templateEngine = new SpringTemplateEngine();
-            templateEngine.setTemplateResolver(classLoaderTemplateResolver);
-
-            // Set the variables in the HTML template using the PDF data model
-            Context context = new Context();
-            context.setVariable("sellerName", pdfDataModel.getSellerName());
-            context.setVariable("sellerAddress", pdfDataModel.getSellerAddress());
-            context.setVariable("sellerGstin", pdfDataModel.getSellerGstin());
-            context.setVariable("buyerName", pdfDataModel.getBuyerName());
-            context.setVariable("buyerAddress", pdfDataModel.getBuyerAddress());
-            context.setVariable("buyerGstin", pdfDataModel.getBuyerGstin());
-
-            for (ItemDetailsModel itemDetailsModel : pdfDataModel.getItems()) {
-                BigDecimal rate = new BigDecimal(itemDetailsModel.getRate().toString());
-                BigDecimal amount = new BigDecimal(itemDetailsModel.getAmount().toString());
-
-                // Format rate and amount to 2 decimal places
-                itemDetailsModel.setRate(rate.setScale(2, RoundingMode.HALF_UP));
-                itemDetailsModel.setAmount(amount.setScale(2, RoundingMode.HALF_UP));
-            }
-
-            context.setVariable("itemQuantityUnit", ITEM_QUANTITY_UNIT);
-            context.setVariable("currencySymbol", CURRENCY_FORMAT);
-
-            context.setVariable("items", pdfDataModel.getItems());
-
-            // Generate the PDF from the HTML template
-            ITextRenderer iTextRenderer = new ITextRenderer();
+            // Render the PDF into memory
             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            iTextRenderer.setDocumentFromString(templateEngine.process("pdf_template", context));
-            iTextRenderer.layout();
-            iTextRenderer.createPDF(byteArrayOutputStream, false);
-            iTextRenderer.finishPDF();
+            writePdf(pdfDataModel, byteArrayOutputStream);
 
             // Return the PDF as a byte array
             return byteArrayOutputStream;
@@ -153,4 +230,115 @@ public class PdfGeneratorService {
             return new ByteArrayOutputStream();
         }
     }
+
+    // Method to render the PDF from the HTML template straight into the given output stream
+    public void writePdf(PdfDataModel pdfDataModel, OutputStream outputStream) throws Exception {
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        writePdf(pdfDataModel, items.size(), items, outputStream);
+    }
+
+    // Method to render the PDF with the given version of its template straight into the given output stream
+    public void writePdf(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, OutputStream outputStream) throws Exception {
+        List<ItemDetailsModel> items = pdfDataModel.getItems();
+        writePdf(pdfDataModel, template, items.size(), items, outputStream);
+    }
+
+    // Method to render the PDF from its seller and buyer details and a separate source of its items, which is read once in order
+    public void writePdf(PdfDataModel pdfDataModel, int itemCount, Iterable<ItemDetailsModel> items, OutputStream outputStream) throws Exception {
+        writePdf(pdfDataModel, resolveTemplate(pdfDataModel), itemCount, items, outputStream);
+    }
+
+    // Method to render the PDF with the given version of its template from a separate source of its items, which is read once in order.
+    // All the chunks of a large invoice are rendered with that version, even if the template changes in the meantime.
+    public void writePdf(PdfDataModel pdfDataModel, PdfTemplateRegistry.Template template, int itemCount, Iterable<ItemDetailsModel> items,
+                         OutputStream outputStream) throws Exception {
+
+        // Large invoices are rendered in chunks of items, so that only the HTML, DOM and layout of one chunk are held at a time
+        int chunkSize = LARGE_DOCUMENT_THRESHOLD > 0 && itemCount > LARGE_DOCUMENT_THRESHOLD
+                ? Math.max(CHUNK_SIZE, 1)
+                : Math.max(itemCount, 1);
+
+        pdfRenderMetrics.renderStarted();
+        try {
+
+            // Generate the PDF from the HTML template with a pooled renderer, the pages are written as they are produced
+            CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+            Iterator<ItemDetailsModel> itemIterator = items.iterator();
+            pdfRendererPool.execute(iTextRenderer -> {
+                boolean firstChunk = true;
+                do {
+                    List<ItemDetailsModel> chunk = nextChunk(itemIterator, chunkSize);
+
+                    // Parse the template output into the DOM while it is produced, without building the HTML string
+                    long parseStart = System.nanoTime();
+                    Document document;
+                    try (ThrottledTemplateReader templateReader = new ThrottledTemplateReader(
+                            templateEngine.processThrottled(template.name(), createContext(pdfDataModel, chunk, !firstChunk)))) {
+                        document = XMLResource.load(templateReader).getDocument();
+                        pdfRenderMetrics.record(Stage.TEMPLATE, templateReader.getProcessingNanos());
+                        pdfRenderMetrics.record(Stage.PARSE, System.nanoTime() - parseStart - templateReader.getProcessingNanos());
+                    }
+                    iTextRenderer.setDocument(document, template.baseUrl());
+
+                    Timer.Sample layoutSample = pdfRenderMetrics.start();
+                    iTextRenderer.layout();
+                    pdfRenderMetrics.stop(layoutSample, Stage.LAYOUT);
+
+                    // The first chunk opens the PDF, the next ones are appended on new pages
+                    Timer.Sample writeSample = pdfRenderMetrics.start();
+                    if (firstChunk) {
+                        iTextRenderer.createPDF(countingOutputStream, false);
+                    } else {
+                        iTextRenderer.writeNextDocument();
+                    }
+                    pdfRenderMetrics.stop(writeSample, Stage.WRITE);
+
+                    firstChunk = false;
+                } while (itemIterator.hasNext());
+
+                Timer.Sample finishSample = pdfRenderMetrics.start();
+                iTextRenderer.finishPDF();
+                pdfRenderMetrics.stop(finishSample, Stage.WRITE);
+            });
+            pdfRenderMetrics.recordRender(countingOutputStream.getCount(), itemCount);
+        } finally {
+            pdfRenderMetrics.renderFinished();
+        }
+    }
+
+    // Helper method to take the next chunk of items, with the rate and amount formatted to 2 decimal places
+    private List<ItemDetailsModel> nextChunk(Iterator<ItemDetailsModel> itemIterator, int chunkSize) {
+        List<ItemDetailsModel> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+        while (chunk.size() < chunkSize && itemIterator.hasNext()) {
+            ItemDetailsModel itemDetailsModel = itemIterator.next();
+            BigDecimal rate = new BigDecimal(itemDetailsModel.getRate().toString());
+            BigDecimal amount = new BigDecimal(itemDetailsModel.getAmount().toString());
+
+            // Format rate and amount to 2 decimal places
+            itemDetailsModel.setRate(rate.setScale(2, RoundingMode.HALF_UP));
+            itemDetailsModel.setAmount(amount.setScale(2, RoundingMode.HALF_UP));
+            chunk.add(itemDetailsModel);
+        }
+        return chunk;
+    }
+
+    // Helper method to set the variables in the HTML template using the PDF data model and the items to render
+    private Context createContext(PdfDataModel pdfDataModel, List<ItemDetailsModel> items, boolean continuation) {
+        Context context = new Context();
+        context.setVariable("sellerName", pdfDataModel.getSellerName());
+        context.setVariable("sellerAddress", pdfDataModel.getSellerAddress());
+        context.setVariable("sellerGstin", pdfDataModel.getSellerGstin());
+        context.setVariable("buyerName", pdfDataModel.getBuyerName());
+        context.setVariable("buyerAddress", pdfDataModel.getBuyerAddress());
+        context.setVariable("buyerGstin", pdfDataModel.getBuyerGstin());
+
+        context.setVariable("itemQuantityUnit", ITEM_QUANTITY_UNIT);
+        context.setVariable("currencySymbol", CURRENCY_FORMAT);
+
+        context.setVariable("items", items);
+
+        // Chunks after the first one of a large invoice skip the seller and buyer details
+        context.setVariable("continuation", continuation);
+        return context;
+    }
 }
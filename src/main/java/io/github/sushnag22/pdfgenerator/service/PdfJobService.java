@@ -0,0 +1,113 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class PdfJobService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfJobService.class);
+
+    // Time for which finished jobs are kept, so that the clients can poll their result
+    @Value("${pdf.job.retention-minutes}")
+    private long JOB_RETENTION_MINUTES;
+
+    // Service to generate and store the PDF
+    private final PdfDocumentService pdfDocumentService;
+
+    // Worker pool with a bounded queue which renders the jobs
+    private final TaskExecutor pdfJobExecutor;
+
+    // Jobs by job id
+    private final Map<String, PdfJobModel> jobs = new ConcurrentHashMap<>();
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfJobService(PdfDocumentService pdfDocumentService, @Qualifier("pdfJobExecutor") TaskExecutor pdfJobExecutor) {
+        this.pdfDocumentService = pdfDocumentService;
+        this.pdfJobExecutor = pdfJobExecutor;
+    }
+
+    // Method to submit a job rendering the PDF, throws a TaskRejectedException if the job queue is full
+    public PdfJobModel submit(PdfDataModel pdfDataModel) {
+
+        // Remove the expired jobs before adding a new one
+        removeExpiredJobs();
+
+        PdfJobModel pdfJobModel = new PdfJobModel(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(pdfJobModel.getJobId(), pdfJobModel);
+
+        try {
+            pdfJobExecutor.execute(() -> render(pdfJobModel, pdfDataModel));
+        } catch (RuntimeException exception) {
+
+            // Forget the job if it could not be queued
+            jobs.remove(pdfJobModel.getJobId());
+            throw exception;
+        }
+
+        // Log the submitted job
+        logger.info("PDF job submitted: {}", pdfJobModel.getJobId());
+        return pdfJobModel;
+    }
+
+    // Method to get a job by its id
+    public Optional<PdfJobModel> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // Helper method to render the PDF of a job on the worker thread
+    private void render(PdfJobModel pdfJobModel, PdfDataModel pdfDataModel) {
+        pdfJobModel.setStatus(PdfJobStatus.RENDERING);
+        try {
+            // An accepted job waits for the render capacity instead of being shed
+            String fileName = pdfDocumentService.generateAndStore(pdfDataModel, false);
+
+            if (fileName.isEmpty()) {
+                fail(pdfJobModel, "Error generating hash for PDF data");
+                return;
+            }
+
+            pdfJobModel.setFileName(fileName);
+            pdfJobModel.setFinishedAt(Instant.now());
+            pdfJobModel.setStatus(PdfJobStatus.DONE);
+
+            // Log the finished job
+            logger.info("PDF job done: {} ({})", pdfJobModel.getJobId(), fileName);
+        } catch (Exception exception) {
+
+            // Log if an error occurs while rendering the job
+            logger.error("PDF job failed: {}", pdfJobModel.getJobId(), exception);
+            fail(pdfJobModel, "Error generating and storing PDF");
+        }
+    }
+
+    // Helper method to mark a job as failed
+    private void fail(PdfJobModel pdfJobModel, String errorMessage) {
+        pdfJobModel.setErrorMessage(errorMessage);
+        pdfJobModel.setFinishedAt(Instant.now());
+        pdfJobModel.setStatus(PdfJobStatus.FAILED);
+    }
+
+    // Helper method to remove the finished jobs which are older than the retention time
+    private void removeExpiredJobs() {
+        Instant expiry = Instant.now().minus(Duration.ofMinutes(JOB_RETENTION_MINUTES));
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiry));
+    }
+}
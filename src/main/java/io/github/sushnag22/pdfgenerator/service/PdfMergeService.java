@@ -0,0 +1,118 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.RandomAccessFileOrArray;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorage;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageEntry;
+import io.github.sushnag22.pdfgenerator.util.PdfFileNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PdfMergeService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfMergeService.class);
+
+    // Pack the objects of the merged PDF into compressed object streams, like the rendered PDFs
+    @Value("${pdf.output.full-compression}")
+    private boolean FULL_COMPRESSION;
+
+    // Storage backend of the PDF files
+    private final PdfStorage pdfStorage;
+
+    // Index of the stored PDF files, which avoids a file system call per requested file
+    private final PdfStorageIndex pdfStorageIndex;
+
+    // Cache of recently generated and downloaded PDF files
+    private final PdfCache pdfCache;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfMergeService(PdfStorage pdfStorage, PdfStorageIndex pdfStorageIndex, PdfCache pdfCache) {
+        this.pdfStorage = pdfStorage;
+        this.pdfStorageIndex = pdfStorageIndex;
+        this.pdfCache = pdfCache;
+    }
+
+    // Method to find the first requested file name which is not a stored PDF file, empty if all of them can be merged
+    public Optional<String> findMissing(List<String> fileNames) throws IOException {
+        for (String fileName : fileNames) {
+            if (!PdfFileNames.isValid(fileName) || !pdfStorageIndex.isStored(fileName)) {
+                return Optional.of(fileName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Method to write the pages of the stored PDF files, in the given order, into a single PDF
+    public void merge(List<String> fileNames, OutputStream outputStream) throws Exception {
+        Document document = new Document();
+        PdfCopy pdfCopy = new PdfCopy(document, outputStream);
+
+        // The response stream is closed by the servlet container
+        pdfCopy.setCloseStream(false);
+        if (FULL_COMPRESSION) {
+            pdfCopy.setFullCompression();
+        }
+        document.open();
+
+        int pageCount = 0;
+        for (String fileName : fileNames) {
+            PdfReader pdfReader = openReader(fileName);
+            try {
+
+                // Copy the page objects as they are, without parsing their content or laying them out again
+                for (int page = 1; page <= pdfReader.getNumberOfPages(); page++) {
+                    pdfCopy.addPage(pdfCopy.getImportedPage(pdfReader, page));
+                }
+                pageCount += pdfReader.getNumberOfPages();
+
+                // Write the objects copied from this file and forget them, so that the memory does not grow with the number of files
+                pdfCopy.freeReader(pdfReader);
+            } finally {
+                pdfReader.close();
+            }
+        }
+        document.close();
+
+        // Log the merged PDF
+        logger.info("PDFs merged: {} pages from {} files", pageCount, fileNames.size());
+    }
+
+    // Helper method to open a stored PDF file, reading only the objects which are copied when it is on the local file system
+    private PdfReader openReader(String fileName) throws IOException {
+        Optional<ByteBuffer> cachedPdf = pdfCache.get(fileName);
+        if (cachedPdf.isPresent()) {
+            ByteBuffer content = cachedPdf.get();
+            byte[] bytes = new byte[content.remaining()];
+            content.get(bytes);
+            return new PdfReader(bytes);
+        }
+
+        Optional<PdfStorageEntry> storageEntry = pdfStorage.stat(fileName);
+        if (storageEntry.isEmpty()) {
+            throw new IOException("PDF file not found: " + fileName);
+        }
+        if (storageEntry.get().localPath() != null) {
+            return new PdfReader(new RandomAccessFileOrArray(storageEntry.get().localPath().toString(), false, true), null);
+        }
+
+        // Files of the other backends are read one at a time, so the memory is bounded by the largest file
+        try (InputStream inputStream = pdfStorage.openInputStream(fileName)) {
+            return new PdfReader(inputStream);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.RenderCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class PdfRenderLimiter {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfRenderLimiter.class);
+
+    // Weight of a new sample in the short-term average of the render latency
+    private static final double SHORT_LATENCY_WEIGHT = 0.1;
+
+    // Weight of a new sample in the long-term average of the render latency, the baseline of an uncongested instance
+    private static final double LONG_LATENCY_WEIGHT = 0.01;
+
+    // Weight of the new limit when the limit is adjusted, so that a single slow render does not halve it
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    // Bounds of the gradient, so that the limit at most halves and does not grow from the gradient alone
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double MAX_GRADIENT = 1.0;
+
+    // Maximum number of seconds a shed request is asked to wait before it retries
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    // Whether the renders are limited, when disabled every render starts at once
+    @Value("${pdf.limiter.enabled}")
+    private boolean ENABLED;
+
+    // Concurrency limit at startup (0 or less uses the number of available processors)
+    @Value("${pdf.limiter.initial-limit}")
+    private int INITIAL_LIMIT;
+
+    // Lower bound of the concurrency limit
+    @Value("${pdf.limiter.min-limit}")
+    private int MIN_LIMIT;
+
+    // Upper bound of the concurrency limit (0 or less uses four times the number of available processors)
+    @Value("${pdf.limiter.max-limit}")
+    private int MAX_LIMIT;
+
+    // Maximum number of renders waiting for the limit, the next ones are shed at once
+    @Value("${pdf.limiter.queue-size}")
+    private int QUEUE_SIZE;
+
+    // Maximum time in milliseconds a render waits for the limit before it is shed
+    @Value("${pdf.limiter.queue-timeout-ms}")
+    private long QUEUE_TIMEOUT_MS;
+
+    // Ratio of the short-term to the long-term render latency which is tolerated before the limit is lowered
+    @Value("${pdf.limiter.latency-tolerance}")
+    private double LATENCY_TOLERANCE;
+
+    // Time in milliseconds for which the instance stays saturated after a render was shed, so that the readiness does not flap
+    @Value("${pdf.limiter.saturation-hold-ms}")
+    private long SATURATION_HOLD_MS;
+
+    // Lock guarding the state of the limiter, the renders waiting for the limit wait on its condition
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+
+    // Current concurrency limit, adjusted after every completed render
+    private double limit;
+    private int minLimit;
+    private int maxLimit;
+
+    // Number of renders in progress and waiting for the limit
+    private int inFlight;
+    private int queued;
+
+    // Short-term and long-term average of the render latency in nanoseconds (0 until the first render)
+    private double shortLatency;
+    private double longLatency;
+
+    // Time of the last shed render in nanoseconds
+    private volatile long lastRejectedAt;
+    private volatile boolean rejected;
+
+    // Number of shed renders
+    private final Counter rejectedRenders;
+
+    // Permit of a render, to be closed once the render is done
+    public final class Permit implements AutoCloseable {
+
+        // Time the render started and the renders in progress at that time
+        private final long startedAt;
+        private final int inFlightAtStart;
+
+        // Whether the render completed, only completed renders are latency samples. The permit of a streamed response may be closed by the
+        // container thread when the body never ran, so it is released only once whichever thread closes it.
+        private volatile boolean completed;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(long startedAt, int inFlightAtStart) {
+            this.startedAt = startedAt;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // Method to mark the render as completed
+        public void complete() {
+            completed = true;
+        }
+
+        // Method to release the permit, the latency of a completed render adjusts the limit
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfRenderLimiter(MeterRegistry meterRegistry) {
+        rejectedRenders = Counter.builder("pdf.limiter.rejected")
+                .description("Number of PDF renders shed because the render capacity and its queue were full")
+                .register(meterRegistry);
+        Gauge.builder("pdf.limiter.limit", this, PdfRenderLimiter::getLimit)
+                .description("Current concurrency limit of the PDF renders")
+                .register(meterRegistry);
+        Gauge.builder("pdf.limiter.in-flight", this, PdfRenderLimiter::getInFlight)
+                .description("Number of PDF renders admitted by the limiter")
+                .register(meterRegistry);
+        Gauge.builder("pdf.limiter.queued", this, PdfRenderLimiter::getQueued)
+                .description("Number of PDF renders waiting for the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    // Method to set the initial limit once the configuration is injected
+    @PostConstruct
+    public void init() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        minLimit = Math.max(MIN_LIMIT, 1);
+        maxLimit = Math.max(MAX_LIMIT > 0 ? MAX_LIMIT : 4 * processors, minLimit);
+        limit = Math.min(Math.max(INITIAL_LIMIT > 0 ? INITIAL_LIMIT : processors, minLimit), maxLimit);
+
+        // Log the limits
+        logger.info("PDF render limiter {}: limit {} (between {} and {}), queue of {}",
+                ENABLED ? "enabled" : "disabled", (int) limit, minLimit, maxLimit, QUEUE_SIZE);
+    }
+
+    // Method to wait for the limit and start a render, throws a RenderCapacityExceededException if the queue is full or the wait times out
+    public Permit acquire() throws RenderCapacityExceededException, InterruptedException {
+        lock.lock();
+        try {
+            if (ENABLED && inFlight >= (int) limit) {
+
+                // Shed the render at once when too many renders are already waiting
+                if (queued >= QUEUE_SIZE) {
+                    throw reject();
+                }
+                queued++;
+                try {
+                    long remainingNanos = TimeUnit.MILLISECONDS.toNanos(QUEUE_TIMEOUT_MS);
+                    while (inFlight >= (int) limit) {
+                        if (remainingNanos <= 0) {
+                            throw reject();
+                        }
+                        remainingNanos = capacityAvailable.awaitNanos(remainingNanos);
+                    }
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            return new Permit(System.nanoTime(), inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Method to wait for the limit as long as needed and start a render, for the internal pools whose own bounded queues cap the waiting work.
+    // These renders are never shed and do not take a place in the queue of the HTTP requests.
+    public Permit acquireBlocking() throws InterruptedException {
+        lock.lock();
+        try {
+            while (ENABLED && inFlight >= (int) limit) {
+                capacityAvailable.await();
+            }
+            inFlight++;
+            return new Permit(System.nanoTime(), inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Method to check if the instance is saturated, i.e. its queue is full or it shed a render recently
+    public boolean isSaturated() {
+        if (rejected && System.nanoTime() - lastRejectedAt < TimeUnit.MILLISECONDS.toNanos(SATURATION_HOLD_MS)) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return ENABLED && queued >= QUEUE_SIZE && inFlight >= (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Method to get the current concurrency limit
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Method to get the number of renders in progress
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Method to get the number of renders waiting for the limit
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Helper method to end a render, adjust the limit from its latency and wake up the renders waiting for the limit
+    private void release(Permit permit) {
+        long latency = System.nanoTime() - permit.startedAt;
+        lock.lock();
+        try {
+            inFlight--;
+            if (permit.completed) {
+                adjustLimit(latency, permit.inFlightAtStart);
+            }
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Helper method to adjust the limit by the gradient of the short-term to the long-term latency, called with the lock held
+    private void adjustLimit(long latency, int inFlightAtStart) {
+        if (shortLatency == 0) {
+            shortLatency = latency;
+            longLatency = latency;
+            return;
+        }
+        shortLatency += (latency - shortLatency) * SHORT_LATENCY_WEIGHT;
+        longLatency += (latency - longLatency) * LONG_LATENCY_WEIGHT;
+
+        // Let the baseline follow a lasting speed-up, e.g. once the JIT has warmed up
+        if (longLatency > 2 * shortLatency) {
+            longLatency *= 0.95;
+        }
+
+        // The limit shrinks as the renders slow down compared to the baseline, otherwise it grows by a queue of its square root
+        double gradient = Math.max(MIN_GRADIENT, Math.min(MAX_GRADIENT, LATENCY_TOLERANCE * longLatency / shortLatency));
+
+        // An instance which does not use half of its limit gives no evidence that a higher limit would be served as fast
+        if (gradient == MAX_GRADIENT && inFlightAtStart * 2 < limit) {
+            return;
+        }
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.min(Math.max(limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING, minLimit), maxLimit);
+    }
+
+    // Helper method to record a shed render, called with the lock held
+    private RenderCapacityExceededException reject() {
+        lastRejectedAt = System.nanoTime();
+        rejected = true;
+        rejectedRenders.increment();
+
+        // Estimate the time the renders ahead of this one need to drain through the limit
+        double drainNanos = (queued + 1) * shortLatency / Math.max(limit, 1);
+        long retryAfterSeconds = Math.min(Math.max((long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)), 1), MAX_RETRY_AFTER_SECONDS);
+
+        // Log the shed render
+        logger.warn("PDF render shed: {} in progress, {} queued, limit {}", inFlight, queued, (int) limit);
+        return new RenderCapacityExceededException("Render capacity exceeded. Please try again later.", retryAfterSeconds);
+    }
+}
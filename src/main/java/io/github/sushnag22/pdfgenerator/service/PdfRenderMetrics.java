@@ -0,0 +1,144 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class PdfRenderMetrics {
+
+    // Stages of the render pipeline, each with its own latency timer
+    public enum Stage {
+        VALIDATION("validation"),
+        HASH("hash"),
+        TEMPLATE("template"),
+        PARSE("parse"),
+        LAYOUT("layout"),
+        WRITE("write"),
+        STORE("store");
+
+        // Value of the stage tag
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    // Registry the meters are registered in
+    private final MeterRegistry meterRegistry;
+
+    // Latency of each stage, with a histogram so that the percentiles can be aggregated across instances
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    // Size of the rendered PDFs
+    private final DistributionSummary outputSize;
+
+    // Number of items of the rendered PDFs
+    private final DistributionSummary itemCount;
+
+    // Number of requests answered with an already stored PDF instead of a render
+    private final Counter deduplicatedRenders;
+
+    // Number of renders in progress
+    private final AtomicInteger activeRenders = new AtomicInteger();
+
+    // Whether the renders of the current thread are recorded, the warm-up renders are not so that they do not skew the production latencies
+    private final ThreadLocal<Boolean> recording = ThreadLocal.withInitial(() -> true);
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfRenderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("pdf.render.stage")
+                    .description("Latency of the stages of the PDF render pipeline")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        outputSize = DistributionSummary.builder("pdf.render.size")
+                .description("Size of the rendered PDFs")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        itemCount = DistributionSummary.builder("pdf.render.items")
+                .description("Number of items of the rendered PDFs")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        deduplicatedRenders = Counter.builder("pdf.render.deduplicated")
+                .description("Number of generate requests answered with an already stored PDF")
+                .register(meterRegistry);
+
+        Gauge.builder("pdf.render.active", activeRenders, AtomicInteger::get)
+                .description("Number of PDF renders in progress")
+                .register(meterRegistry);
+    }
+
+    // Method to start timing a stage
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    // Method to stop timing a stage
+    public void stop(Timer.Sample sample, Stage stage) {
+        if (sample != null && recording.get()) {
+            sample.stop(stageTimers.get(stage));
+        }
+    }
+
+    // Method to record the time of a stage measured by the caller
+    public void record(Stage stage, long nanos) {
+        if (recording.get()) {
+            stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Method to record a rendered PDF
+    public void recordRender(long size, int items) {
+        if (recording.get()) {
+            outputSize.record(size);
+            itemCount.record(items);
+        }
+    }
+
+    // Method to record a request answered with an already stored PDF
+    public void recordDeduplicated() {
+        if (recording.get()) {
+            deduplicatedRenders.increment();
+        }
+    }
+
+    // Method to stop recording the stages and renders of the current thread, e.g. during the warm-up
+    public void pauseRecording() {
+        recording.set(false);
+    }
+
+    // Method to record the stages and renders of the current thread again
+    public void resumeRecording() {
+        recording.remove();
+    }
+
+    // Method to record the start of a render
+    public void renderStarted() {
+        activeRenders.incrementAndGet();
+    }
+
+    // Method to record the end of a render
+    public void renderFinished() {
+        activeRenders.decrementAndGet();
+    }
+}
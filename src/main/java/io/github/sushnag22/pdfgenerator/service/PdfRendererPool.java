@@ -0,0 +1,123 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.lowagie.text.pdf.PdfWriter;
+import org.xhtmlrenderer.pdf.DefaultPDFCreationListener;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+@Service
+public class PdfRendererPool {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfRendererPool.class);
+
+    // Maximum number of idle renderers kept for reuse (0 or less uses the number of available processors)
+    @Value("${pdf.renderer.pool-size}")
+    private int POOL_SIZE;
+
+    // Deflate level of the PDF streams, from 0 (none) to 9 (smallest), -1 for the default level
+    @Value("${pdf.output.compression-level}")
+    private int COMPRESSION_LEVEL;
+
+    // Whether the objects and the cross-reference table are packed into compressed streams (PDF 1.5)
+    @Value("${pdf.output.full-compression}")
+    private boolean FULL_COMPRESSION;
+
+    // Registry of the fonts parsed once at startup and shared by all the renderers
+    private final PdfFontRegistry pdfFontRegistry;
+
+    // Idle renderers which can be reused for the next document
+    private BlockingQueue<ITextRenderer> idleRenderers;
+
+    // Generation of the pool, incremented when the idle renderers are dropped so that the ones in use are not returned
+    private volatile int generation;
+
+    // Task to be executed with a pooled renderer
+    @FunctionalInterface
+    public interface RendererTask {
+        void render(ITextRenderer iTextRenderer) throws Exception;
+    }
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfRendererPool(PdfFontRegistry pdfFontRegistry) {
+        this.pdfFontRegistry = pdfFontRegistry;
+    }
+
+    // Method to initialize the pool once the configuration is injected
+    @PostConstruct
+    public void init() {
+        int poolSize = POOL_SIZE > 0 ? POOL_SIZE : Runtime.getRuntime().availableProcessors();
+        idleRenderers = new ArrayBlockingQueue<>(poolSize);
+        logger.info("PDF renderer pool initialized with {} renderers (compression level {}, full compression {})",
+                poolSize, COMPRESSION_LEVEL, FULL_COMPRESSION);
+    }
+
+    // Method to run a task with a pooled renderer and return the renderer to the pool afterwards
+    public void execute(RendererTask rendererTask) throws Exception {
+
+        // Reuse an idle renderer or create a new one if none is available
+        int borrowedGeneration = generation;
+        ITextRenderer iTextRenderer = idleRenderers.poll();
+        if (iTextRenderer == null) {
+            iTextRenderer = createRenderer();
+        }
+
+        boolean completed = false;
+        try {
+            rendererTask.render(iTextRenderer);
+            completed = true;
+        } finally {
+
+            // Only return renderers which finished cleanly, a failed renderer may hold a half written document.
+            // The next setDocument call resets the shared context, while the parsed stylesheets stay cached by URI.
+            if (completed) {
+                release(iTextRenderer, borrowedGeneration);
+            }
+        }
+    }
+
+    // Method to drop the idle renderers, e.g. when a stylesheet they cached has changed, the renderers in use are dropped once done
+    public synchronized void invalidate() {
+        idleRenderers.clear();
+        generation++;
+        logger.info("PDF renderer pool invalidated");
+    }
+
+    // Helper method to return a renderer to the pool, unless the pool was invalidated while it was in use
+    private synchronized void release(ITextRenderer iTextRenderer, int borrowedGeneration) {
+        if (borrowedGeneration == generation) {
+            idleRenderers.offer(iTextRenderer);
+        }
+    }
+
+    // Method to create a renderer with the fonts registered once for its whole lifetime
+    ITextRenderer createRenderer() throws Exception {
+        ITextRenderer iTextRenderer = new ITextRenderer();
+
+        // Register the fonts of the registry, if any
+        pdfFontRegistry.registerFonts(iTextRenderer.getFontResolver());
+
+        // Apply the compression settings to the writer of every document, before it is opened
+        iTextRenderer.setPDFCreationListener(new DefaultPDFCreationListener() {
+            @Override
+            public void preOpen(ITextRenderer renderer) {
+                PdfWriter pdfWriter = renderer.getWriter();
+                pdfWriter.setCompressionLevel(COMPRESSION_LEVEL);
+                if (FULL_COMPRESSION) {
+                    pdfWriter.setFullCompression();
+                }
+            }
+        });
+
+        return iTextRenderer;
+    }
+}
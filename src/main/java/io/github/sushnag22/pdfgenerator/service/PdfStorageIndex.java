@@ -0,0 +1,83 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.storage.PdfStorage;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Service
+public class PdfStorageIndex {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfStorageIndex.class);
+
+    // Storage backend of the PDF files
+    private final PdfStorage pdfStorage;
+
+    // Names of the stored PDF files
+    private final Set<String> storedFileNames = ConcurrentHashMap.newKeySet();
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfStorageIndex(PdfStorage pdfStorage) {
+        this.pdfStorage = pdfStorage;
+    }
+
+    // Method to load the names of the already stored PDF files at startup
+    @PostConstruct
+    public void load() {
+        try (Stream<String> fileNames = pdfStorage.listFileNames()) {
+            fileNames.forEach(storedFileNames::add);
+            logger.info("PDF storage index loaded with {} files", storedFileNames.size());
+        } catch (Exception exception) {
+            // Log the error if the PDF storage cannot be listed, the files are then rendered again when requested
+            logger.error("Failed to load PDF storage index", exception);
+        }
+    }
+
+    // Method to check if a PDF file is stored
+    public boolean contains(String fileName) {
+        return storedFileNames.contains(fileName);
+    }
+
+    // Method to check if a PDF file is stored, asking the storage on a miss of the index, which is a snapshot of the startup that does not
+    // know the files stored since by other instances sharing the storage. A file found in the storage is added to the index.
+    public boolean isStored(String fileName) throws IOException {
+        if (storedFileNames.contains(fileName)) {
+            return true;
+        }
+        if (pdfStorage.exists(fileName)) {
+            storedFileNames.add(fileName);
+            return true;
+        }
+        return false;
+    }
+
+    // Method to list the names of the PDF files in the storage, including the ones stored by other instances, which are added to the index.
+    // The stream must be closed.
+    public Stream<String> listStored() throws IOException {
+        return pdfStorage.listFileNames().peek(storedFileNames::add);
+    }
+
+    // Method to add a stored PDF file
+    public void add(String fileName) {
+        storedFileNames.add(fileName);
+    }
+
+    // Method to remove a PDF file which is no longer stored
+    public void remove(String fileName) {
+        storedFileNames.remove(fileName);
+    }
+
+    // Method to get the number of stored PDF files
+    public int size() {
+        return storedFileNames.size();
+    }
+}
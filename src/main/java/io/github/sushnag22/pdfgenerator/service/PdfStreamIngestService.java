@@ -0,0 +1,192 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderMetrics.Stage;
+import io.github.sushnag22.pdfgenerator.util.ItemSpool;
+import io.github.sushnag22.pdfgenerator.util.StringUtil;
+import io.github.sushnag22.pdfgenerator.validation.ItemDetailsValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class PdfStreamIngestService {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfStreamIngestService.class);
+
+    // Name of the field holding the items in the PDF data
+    private static final String ITEMS_FIELD = "items";
+
+    // Directory of the temporary files the streamed items are spooled to (empty to use the default temporary directory)
+    @Value("${pdf.ingest.spool-directory}")
+    private String SPOOL_DIRECTORY;
+
+    // Object mapper configured by Spring, used to create the parser and to read each item on its own
+    private final ObjectMapper objectMapper;
+
+    // Service to generate and store the PDF only once for identical data
+    private final PdfDocumentService pdfDocumentService;
+
+    // Service to format the field names
+    private final StringUtil stringUtil;
+
+    // Validator of the seller and buyer details and of each item
+    private final Validator validator;
+
+    // Validator adapter reporting the violations of the seller and buyer details as field errors
+    private final SpringValidatorAdapter springValidatorAdapter;
+
+    // Latency metrics of the render pipeline
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Registry of the templates the PDF can be rendered with
+    private final PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfStreamIngestService(ObjectMapper objectMapper, PdfDocumentService pdfDocumentService, StringUtil stringUtil,
+                                  Validator validator, PdfRenderMetrics pdfRenderMetrics, PdfTemplateRegistry pdfTemplateRegistry) {
+        this.objectMapper = objectMapper;
+        this.pdfDocumentService = pdfDocumentService;
+        this.stringUtil = stringUtil;
+        this.validator = validator;
+        this.springValidatorAdapter = new SpringValidatorAdapter(validator);
+        this.pdfRenderMetrics = pdfRenderMetrics;
+        this.pdfTemplateRegistry = pdfTemplateRegistry;
+    }
+
+    // Method to read the PDF data from a JSON stream, validating each item as it arrives, then generate and store the PDF
+    public String generateAndStore(InputStream inputStream) throws Exception {
+        PdfDataModel header = new PdfDataModel();
+        long validationNanos = 0;
+
+        try (JsonParser jsonParser = objectMapper.getFactory().createParser(inputStream);
+             ItemSpool itemSpool = new ItemSpool(SPOOL_DIRECTORY.isBlank() ? null : Path.of(SPOOL_DIRECTORY))) {
+
+            if (jsonParser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidPdfDataException("PDF data must be a JSON object");
+            }
+
+            boolean itemsRead = false;
+            while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = jsonParser.currentName();
+                JsonToken valueToken = jsonParser.nextToken();
+
+                if (ITEMS_FIELD.equals(fieldName)) {
+
+                    // The seller and buyer details come first, so that they are rejected before any item is read
+                    long validationStart = System.nanoTime();
+                    validateHeader(header);
+                    validationNanos += System.nanoTime() - validationStart;
+
+                    if (valueToken == JsonToken.START_ARRAY) {
+                        validationNanos += readItems(jsonParser, itemSpool);
+                    } else if (valueToken != JsonToken.VALUE_NULL) {
+                        throw new InvalidPdfDataException("Item details must be an array");
+                    }
+                    itemsRead = true;
+                } else if (readHeaderField(header, fieldName, jsonParser) && itemsRead) {
+                    throw new InvalidPdfDataException("Seller and buyer details must precede the item details");
+                } else {
+
+                    // Skip a nested value, which is not a valid header field, and unknown fields like the object mapper does for the other endpoints
+                    jsonParser.skipChildren();
+                }
+            }
+
+            if (!itemsRead) {
+                validateHeader(header);
+            }
+            if (itemSpool.size() == 0) {
+                throw new InvalidPdfDataException("Item details cannot be empty");
+            }
+            pdfRenderMetrics.record(Stage.VALIDATION, validationNanos);
+
+            // Hash and render the items from the spool, the render is skipped if the same PDF is already stored
+            logger.info("Streamed PDF data read with {} items", itemSpool.size());
+            return pdfDocumentService.generateAndStore(header, itemSpool.size(), itemSpool);
+        }
+    }
+
+    // Helper method to read the items one by one into the spool, returns the time spent validating them
+    private long readItems(JsonParser jsonParser, ItemSpool itemSpool) throws IOException, InvalidPdfDataException {
+        long validationNanos = 0;
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            int index = itemSpool.size();
+            ItemDetailsModel item = objectMapper.readValue(jsonParser, ItemDetailsModel.class);
+            if (item == null) {
+                throw new InvalidPdfDataException("Item " + index + ": Item details cannot be empty");
+            }
+
+            // Validate the item on its own, the request is rejected at the first invalid item without reading the rest
+            long validationStart = System.nanoTime();
+            Set<ConstraintViolation<ItemDetailsModel>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                throw new InvalidPdfDataException("Item " + index + ": " + violations.stream()
+                        .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(ConstraintViolation::getMessage)
+                        .orElseThrow());
+            }
+            Optional<String> violation = ItemDetailsValidator.findViolation(item);
+            if (violation.isPresent()) {
+                throw new InvalidPdfDataException("Item " + index + ": " + violation.get());
+            }
+            validationNanos += System.nanoTime() - validationStart;
+
+            itemSpool.add(item);
+        }
+        return validationNanos;
+    }
+
+    // Helper method to read a seller, buyer or template field into the header, returns false if it is not one of them
+    private boolean readHeaderField(PdfDataModel header, String fieldName, JsonParser jsonParser) throws IOException {
+        switch (fieldName) {
+            case "sellerName" -> header.setSellerName(jsonParser.getValueAsString());
+            case "sellerAddress" -> header.setSellerAddress(jsonParser.getValueAsString());
+            case "sellerGstin" -> header.setSellerGstin(jsonParser.getValueAsString());
+            case "buyerName" -> header.setBuyerName(jsonParser.getValueAsString());
+            case "buyerAddress" -> header.setBuyerAddress(jsonParser.getValueAsString());
+            case "buyerGstin" -> header.setBuyerGstin(jsonParser.getValueAsString());
+            case "templateId" -> header.setTemplateId(jsonParser.getValueAsString());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Helper method to validate the seller and buyer details and the template, the items are validated one by one as they are read
+    private void validateHeader(PdfDataModel header) throws InvalidPdfDataException {
+        BindingResult bindingResult = new BeanPropertyBindingResult(header, "pdfDataModel");
+        springValidatorAdapter.validate(header, bindingResult);
+        List<FieldError> headerErrors = bindingResult.getFieldErrors().stream()
+                .filter(fieldError -> !fieldError.getField().startsWith(ITEMS_FIELD))
+                .toList();
+        if (!headerErrors.isEmpty()) {
+            throw new InvalidPdfDataException(stringUtil.getFormattedErrorMessage(headerErrors));
+        }
+        pdfTemplateRegistry.resolve(header.getTemplateId());
+    }
+}
@@ -0,0 +1,325 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Service
+public class PdfTemplateRegistry {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfTemplateRegistry.class);
+
+    // Template ids which are safe file names, so that an id cannot escape the template directory
+    private static final Pattern TEMPLATE_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,50}");
+
+    // Extensions of the template and of its stylesheet, both part of the version
+    private static final String TEMPLATE_EXTENSION = ".html";
+    private static final String STYLESHEET_EXTENSION = ".css";
+
+    // Number of hexadecimal digits of the content fingerprint used as version
+    private static final int VERSION_LENGTH = 16;
+
+    // Maximum number of unknown template ids remembered, so that requests with random ids cannot grow the registry without bound
+    private static final int MAX_MISSING_TEMPLATES = 1000;
+
+    // Template used when a request does not select one
+    @Value("${pdf.template.name}")
+    private String DEFAULT_TEMPLATE;
+
+    // Comma separated ids of the templates at the root of the classpath
+    @Value("${pdf.template.classpath-templates}")
+    private String CLASSPATH_TEMPLATES;
+
+    // Directory of the templates which override or add to the classpath templates (empty to only use the classpath)
+    @Value("${pdf.template.directory}")
+    private String TEMPLATE_DIRECTORY;
+
+    // Whether the templates are parsed and cached when they are loaded, so that the first request does not pay for it
+    @Value("${pdf.template.preload}")
+    private boolean TEMPLATE_PRELOAD;
+
+    // Minimum time in milliseconds between two checks of the modification time of a template file
+    @Value("${pdf.template.reload-check-interval-ms}")
+    private long RELOAD_CHECK_INTERVAL_MS;
+
+    // Template with the version fingerprinting its content and the name it is rendered with by the template engine, which is unique
+    // per version. The file and the modification times of the template and of its stylesheet (0 if it has none) only for the directory templates
+    public record Template(String id, String version, String name, String baseUrl, Path file, long lastModified,
+                           long stylesheetLastModified, long checkedAt) {
+    }
+
+    // Shared template engine which caches the parsed templates
+    private final TemplateEngine templateEngine;
+
+    // Pool of renderers which cache the parsed stylesheets of the templates
+    private final PdfRendererPool pdfRendererPool;
+
+    // Loaded templates by id
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    // Time in milliseconds at which the unknown template ids were looked up, they are only looked up again once per check interval
+    private final Map<String, Long> missingTemplates = new ConcurrentHashMap<>();
+
+    // Directory of the copies of every loaded version of the directory templates, null if the templates are only loaded from the classpath
+    private Path snapshotDirectory;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfTemplateRegistry(TemplateEngine templateEngine, PdfRendererPool pdfRendererPool) {
+        this.templateEngine = templateEngine;
+        this.pdfRendererPool = pdfRendererPool;
+    }
+
+    // Method to load the classpath templates and the templates of the directory at startup
+    @PostConstruct
+    public void init() throws IOException {
+        List<String> templateIds = new ArrayList<>();
+        templateIds.add(DEFAULT_TEMPLATE);
+        for (String templateId : CLASSPATH_TEMPLATES.split(",")) {
+            if (!templateId.isBlank()) {
+                templateIds.add(templateId.trim());
+            }
+        }
+        Path templateDirectory = getTemplateDirectory();
+        if (templateDirectory != null) {
+            snapshotDirectory = Files.createTempDirectory("pdf-templates");
+        }
+        if (templateDirectory != null && Files.isDirectory(templateDirectory)) {
+            try (DirectoryStream<Path> templateFiles = Files.newDirectoryStream(templateDirectory, "*" + TEMPLATE_EXTENSION)) {
+                for (Path templateFile : templateFiles) {
+                    String fileName = templateFile.getFileName().toString();
+                    templateIds.add(fileName.substring(0, fileName.length() - TEMPLATE_EXTENSION.length()));
+                }
+            }
+        }
+
+        for (String templateId : templateIds) {
+            if (!templates.containsKey(templateId) && reload(templateId, null) == null) {
+                logger.error("PDF template not found: {}", templateId);
+            }
+        }
+        if (!templates.containsKey(DEFAULT_TEMPLATE)) {
+            throw new IllegalStateException("PDF template not found: " + DEFAULT_TEMPLATE);
+        }
+        logger.info("PDF template registry loaded with {} templates", templates.size());
+    }
+
+    // Method to delete the copies of the directory templates at shutdown
+    @PreDestroy
+    public void destroy() throws IOException {
+        if (snapshotDirectory != null) {
+            FileSystemUtils.deleteRecursively(snapshotDirectory);
+        }
+    }
+
+    // Method to get the template with the given id (the default template if empty), reloaded first if its file has changed
+    public Template resolve(String templateId) throws InvalidPdfDataException {
+        String id = templateId == null || templateId.isBlank() ? DEFAULT_TEMPLATE : templateId;
+        Template template = templates.get(id);
+
+        // Reject the ids which cannot name a template or were not found within the interval without taking the lock of the registry
+        if (template == null) {
+            Long missingAt = missingTemplates.get(id);
+            if (!TEMPLATE_ID_PATTERN.matcher(id).matches()
+                    || (missingAt != null && System.currentTimeMillis() - missingAt < RELOAD_CHECK_INTERVAL_MS)) {
+                throw new InvalidPdfDataException("Unknown template: " + id);
+            }
+        }
+
+        // The file of a directory template is checked at most once per interval, the classpath templates never change
+        if (template == null || (template.file() != null && System.currentTimeMillis() - template.checkedAt() >= RELOAD_CHECK_INTERVAL_MS)) {
+            template = reload(id, template);
+        }
+        if (template == null) {
+            throw new InvalidPdfDataException("Unknown template: " + id);
+        }
+        return template;
+    }
+
+    // Method to check if a template exists
+    public boolean contains(String templateId) {
+        try {
+            resolve(templateId);
+            return true;
+        } catch (InvalidPdfDataException invalidPdfDataException) {
+            return false;
+        }
+    }
+
+    // Method to get the loaded templates
+    public Collection<Template> getTemplates() {
+        return List.copyOf(templates.values());
+    }
+
+    // Helper method to load a template again if it has changed, returns null if it does not exist
+    private synchronized Template reload(String id, Template current) {
+
+        // Another request may have reloaded the template in the meantime
+        Template latest = templates.get(id);
+        if (latest != current) {
+            return latest;
+        }
+        if (!TEMPLATE_ID_PATTERN.matcher(id).matches()) {
+            return null;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            Path templateDirectory = getTemplateDirectory();
+            Path file = templateDirectory == null ? null : templateDirectory.resolve(id + TEMPLATE_EXTENSION);
+            Template loaded;
+            if (file != null && Files.isRegularFile(file)) {
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                Path stylesheet = file.resolveSibling(id + STYLESHEET_EXTENSION);
+                long stylesheetLastModified = Files.isRegularFile(stylesheet) ? Files.getLastModifiedTime(stylesheet).toMillis() : 0;
+
+                // Only read the files again when the modification time of the template or of its stylesheet has changed
+                if (current != null && current.file() != null && current.lastModified() == lastModified
+                        && current.stylesheetLastModified() == stylesheetLastModified) {
+                    Template checked = new Template(id, current.version(), current.name(), current.baseUrl(), file, lastModified,
+                            stylesheetLastModified, now);
+                    templates.put(id, checked);
+                    return checked;
+                }
+
+                // The version is rendered from its own copy, so that a request renders the version its file name was hashed from
+                byte[] templateContent = Files.readAllBytes(file);
+                byte[] stylesheetContent = stylesheetLastModified != 0 ? Files.readAllBytes(stylesheet) : null;
+                String version = fingerprint(templateContent, stylesheetContent);
+                Path snapshot = snapshot(id, version, templateContent, stylesheetContent);
+                String name = snapshot.toString();
+                loaded = new Template(id, version, name.substring(0, name.length() - TEMPLATE_EXTENSION.length()),
+                        snapshot.toUri().toString(), file, lastModified, stylesheetLastModified, now);
+            } else {
+                URL templateUrl = getClass().getClassLoader().getResource(id + TEMPLATE_EXTENSION);
+                if (templateUrl == null || !isClasspathTemplate(id)) {
+                    if (missingTemplates.size() >= MAX_MISSING_TEMPLATES) {
+                        missingTemplates.clear();
+                    }
+                    missingTemplates.put(id, now);
+                    if (current != null) {
+                        templates.remove(id);
+                        templateEngine.clearTemplateCacheFor(current.name());
+                        logger.info("PDF template removed: {}", id);
+                    }
+                    return null;
+                }
+                loaded = new Template(id, fingerprint(readClasspathResource(id + TEMPLATE_EXTENSION),
+                        readClasspathResource(id + STYLESHEET_EXTENSION)), id, templateUrl.toExternalForm(), null, 0, 0, now);
+            }
+
+            // The parsed previous version and the stylesheets the renderers cached for it are dropped, a request which resolved it
+            // before the change parses it again from its copy
+            if (current != null) {
+                templateEngine.clearTemplateCacheFor(current.name());
+                pdfRendererPool.invalidate();
+                logger.info("PDF template reloaded: {} (version {} -> {})", id, current.version(), loaded.version());
+            } else {
+                logger.info("PDF template loaded: {} (version {})", id, loaded.version());
+            }
+            templates.put(id, loaded);
+            missingTemplates.remove(id);
+            precompile(loaded);
+            return loaded;
+        } catch (IOException exception) {
+
+            // Keep serving the current version if the file cannot be read, e.g. while it is being replaced
+            logger.error("Failed to load PDF template: {}", id, exception);
+            return current;
+        }
+    }
+
+    // Helper method to parse and cache a template, the context is empty so that the template is only parsed
+    private void precompile(Template template) {
+        if (!TEMPLATE_PRELOAD) {
+            return;
+        }
+        try {
+            templateEngine.process(template.name(), new Context(), Writer.nullWriter());
+        } catch (Exception exception) {
+            logger.error("Failed to parse PDF template: {}", template.id(), exception);
+        }
+    }
+
+    // Helper method to copy a version of a directory template and of its stylesheet (null if none) into a directory of its own, returns the
+    // copy of the template. The stylesheet is written first, so that a copy of the template is only found once complete.
+    private Path snapshot(String id, String version, byte[] template, byte[] stylesheet) throws IOException {
+        Path versionDirectory = Files.createDirectories(snapshotDirectory.resolve(id).resolve(version));
+        Path templateCopy = versionDirectory.resolve(id + TEMPLATE_EXTENSION);
+
+        // A version which was loaded before, e.g. after an edit was reverted, is already copied
+        if (!Files.exists(templateCopy)) {
+            if (stylesheet != null) {
+                Files.write(versionDirectory.resolve(id + STYLESHEET_EXTENSION), stylesheet);
+            }
+            Files.write(templateCopy, template);
+        }
+        return templateCopy;
+    }
+
+    // Helper method to check if a template id is one of the configured classpath templates
+    private boolean isClasspathTemplate(String id) {
+        if (id.equals(DEFAULT_TEMPLATE)) {
+            return true;
+        }
+        for (String templateId : CLASSPATH_TEMPLATES.split(",")) {
+            if (templateId.trim().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Helper method to get the template directory, null if the templates are only loaded from the classpath
+    private Path getTemplateDirectory() {
+        return TEMPLATE_DIRECTORY == null || TEMPLATE_DIRECTORY.isBlank() ? null : Path.of(TEMPLATE_DIRECTORY).toAbsolutePath();
+    }
+
+    // Helper method to read a classpath resource, null if it does not exist
+    private byte[] readClasspathResource(String name) throws IOException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(name)) {
+            return inputStream == null ? null : inputStream.readAllBytes();
+        }
+    }
+
+    // Helper method to fingerprint the content of a template and of its stylesheet (null if none)
+    private static String fingerprint(byte[] template, byte[] stylesheet) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(template);
+            if (stylesheet != null) {
+                messageDigest.update((byte) 0);
+                messageDigest.update(stylesheet);
+            }
+            return HexFormat.of().formatHex(messageDigest.digest()).substring(0, VERSION_LENGTH);
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException("SHA-256 is not available", noSuchAlgorithmException);
+        }
+    }
+}
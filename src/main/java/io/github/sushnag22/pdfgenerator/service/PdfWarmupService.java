@@ -0,0 +1,130 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Renders synthetic invoices at startup, the runners are called before the application reports itself ready to accept traffic
+@Service
+public class PdfWarmupService implements ApplicationRunner {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfWarmupService.class);
+
+    // Whether the synthetic invoices are rendered at startup
+    @Value("${pdf.warmup.enabled}")
+    private boolean ENABLED;
+
+    // Number of times every synthetic invoice is rendered with every template
+    @Value("${pdf.warmup.iterations}")
+    private int ITERATIONS;
+
+    // Comma separated numbers of items of the synthetic invoices
+    @Value("${pdf.warmup.item-counts}")
+    private String ITEM_COUNTS;
+
+    // Whether the application exits once warmed up, used by the class data sharing training run
+    @Value("${pdf.warmup.exit}")
+    private boolean EXIT;
+
+    // Service to generate the PDF
+    private final PdfGeneratorService pdfGeneratorService;
+
+    // Registry of the templates the PDF can be rendered with
+    private final PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Validator of the PDF data, warmed up with the render
+    private final Validator validator;
+
+    // Metrics of the render pipeline, which do not record the warm-up renders
+    private final PdfRenderMetrics pdfRenderMetrics;
+
+    // Application context closed when the application exits after the warm-up
+    private final ApplicationContext applicationContext;
+
+    // Constructor based dependency injection
+    @Autowired
+    public PdfWarmupService(PdfGeneratorService pdfGeneratorService, PdfTemplateRegistry pdfTemplateRegistry, Validator validator,
+                            PdfRenderMetrics pdfRenderMetrics, ApplicationContext applicationContext) {
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.pdfTemplateRegistry = pdfTemplateRegistry;
+        this.validator = validator;
+        this.pdfRenderMetrics = pdfRenderMetrics;
+        this.applicationContext = applicationContext;
+    }
+
+    // Method to warm up the render pipeline at startup, and to exit afterwards if requested
+    @Override
+    public void run(ApplicationArguments applicationArguments) {
+        if (ENABLED) {
+            warmUp();
+        }
+        if (EXIT) {
+            logger.info("Exiting after the PDF warm-up");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    // Method to validate, hash and render the synthetic invoices with every template, returns the number of renders.
+    // The renders are not recorded in the render metrics, whose percentiles describe the production renders only.
+    public int warmUp() {
+        long start = System.nanoTime();
+        int renders = 0;
+        pdfRenderMetrics.pauseRecording();
+        try {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                for (String itemCount : ITEM_COUNTS.split(",")) {
+                    if (itemCount.isBlank()) {
+                        continue;
+                    }
+                    for (PdfTemplateRegistry.Template template : pdfTemplateRegistry.getTemplates()) {
+                        PdfDataModel pdfDataModel = createPdfDataModel(Integer.parseInt(itemCount.trim()), template.id());
+                        validator.validate(pdfDataModel);
+                        pdfGeneratorService.generateFileName(pdfDataModel, template);
+
+                        // The PDF is discarded, so that the warm-up does not depend on the storage
+                        pdfGeneratorService.writePdf(pdfDataModel, template, OutputStream.nullOutputStream());
+                        renders++;
+                    }
+                }
+            }
+        } catch (Exception exception) {
+
+            // Log the error, the application still starts, only colder
+            logger.error("PDF warm-up failed after {} renders", renders, exception);
+            return renders;
+        } finally {
+            pdfRenderMetrics.resumeRecording();
+        }
+
+        // Log the warm-up
+        logger.info("PDF warm-up done: {} renders in {} ms", renders, (System.nanoTime() - start) / 1_000_000);
+        return renders;
+    }
+
+    // Helper method to create a synthetic invoice with the given number of items
+    private PdfDataModel createPdfDataModel(int itemCount, String templateId) {
+        List<ItemDetailsModel> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal rate = BigDecimal.valueOf(1000 + i % 500, 2);
+            int quantity = 1 + i % 12;
+            items.add(new ItemDetailsModel("Product " + i, quantity, rate, rate.multiply(BigDecimal.valueOf(quantity))));
+        }
+        return new PdfDataModel("Warm-up Seller", "123 Seller Street, Bengaluru", "29ABCDE1234F1Z5",
+                "Warm-up Buyer", "456 Buyer Avenue, Chennai", "33ABCDE1234F1Z5", items, templateId);
+    }
+}
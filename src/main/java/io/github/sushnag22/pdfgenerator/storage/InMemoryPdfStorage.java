@@ -0,0 +1,60 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Service
+@ConditionalOnProperty(name = "pdf.storage.backend", havingValue = "memory")
+
+// Storage backend keeping the PDF files in memory, for tests and benchmarks
+public class InMemoryPdfStorage implements PdfStorage {
+
+    // Stored PDF file with its modification time
+    private record StoredFile(byte[] content, Instant lastModified) {
+    }
+
+    // Stored PDF files by file name
+    private final Map<String, StoredFile> storedFiles = new ConcurrentHashMap<>();
+
+    @Override
+    public void write(String fileName, ContentWriter contentWriter) throws Exception {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        contentWriter.writeTo(byteArrayOutputStream);
+        storedFiles.put(fileName, new StoredFile(byteArrayOutputStream.toByteArray(), Instant.now()));
+    }
+
+    @Override
+    public InputStream openInputStream(String fileName) throws NoSuchFileException {
+        StoredFile storedFile = storedFiles.get(fileName);
+        if (storedFile == null) {
+            throw new NoSuchFileException(fileName);
+        }
+        return new ByteArrayInputStream(storedFile.content());
+    }
+
+    @Override
+    public Optional<PdfStorageEntry> stat(String fileName) {
+        return Optional.ofNullable(storedFiles.get(fileName))
+                .map(storedFile -> new PdfStorageEntry(fileName, storedFile.content().length, storedFile.lastModified(), null));
+    }
+
+    @Override
+    public boolean delete(String fileName) {
+        return storedFiles.remove(fileName) != null;
+    }
+
+    @Override
+    public Stream<String> listFileNames() {
+        return storedFiles.keySet().stream();
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@ConditionalOnProperty(name = "pdf.storage.backend", havingValue = "local", matchIfMissing = true)
+
+// Storage backend keeping the PDF files in the sharded layout of the local storage directory
+public class LocalPdfStorage implements PdfStorage {
+
+    // Layout of the PDF files in the storage directory
+    private final PdfStorageLayout pdfStorageLayout;
+
+    // Constructor based dependency injection
+    @Autowired
+    public LocalPdfStorage(PdfStorageLayout pdfStorageLayout) {
+        this.pdfStorageLayout = pdfStorageLayout;
+    }
+
+    @Override
+    public void write(String fileName, ContentWriter contentWriter) throws Exception {
+
+        // Write to a temporary file next to the target, which is moved in place once complete
+        Path filePath = pdfStorageLayout.prepareWrite(fileName);
+        Path tempFile = Files.createTempFile(filePath.getParent(), fileName, ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                contentWriter.writeTo(outputStream);
+            }
+            Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream openInputStream(String fileName) throws IOException {
+        return Files.newInputStream(pdfStorageLayout.locate(fileName));
+    }
+
+    @Override
+    public Optional<PdfStorageEntry> stat(String fileName) throws IOException {
+        Path filePath = pdfStorageLayout.locate(fileName);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            if (!attributes.isRegularFile() || !Files.isReadable(filePath)) {
+                return Optional.empty();
+            }
+            return Optional.of(new PdfStorageEntry(fileName, attributes.size(), attributes.lastModifiedTime().toInstant(), filePath));
+        } catch (NoSuchFileException noSuchFileException) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean delete(String fileName) throws IOException {
+        return Files.deleteIfExists(pdfStorageLayout.locate(fileName));
+    }
+
+    @Override
+    public Stream<String> listFileNames() throws IOException {
+        return pdfStorageLayout.listFiles().map(path -> path.getFileName().toString());
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Storage backend of the generated PDF files, selected with the pdf.storage.backend property
+public interface PdfStorage {
+
+    // Writer streaming the content of a PDF file into the storage
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream outputStream) throws Exception;
+    }
+
+    // Method to stream a PDF file into the storage, the file only becomes visible if the writer completes without an exception
+    void write(String fileName, ContentWriter contentWriter) throws Exception;
+
+    // Method to open a stored PDF file for reading, the stream must be closed
+    InputStream openInputStream(String fileName) throws IOException;
+
+    // Method to get the size and modification time of a stored PDF file, empty if it is not stored
+    Optional<PdfStorageEntry> stat(String fileName) throws IOException;
+
+    // Method to delete a stored PDF file, returns false if it was not stored
+    boolean delete(String fileName) throws IOException;
+
+    // Method to list the names of all the stored PDF files, the stream must be closed
+    Stream<String> listFileNames() throws IOException;
+
+    // Method to check if a PDF file is stored
+    default boolean exists(String fileName) throws IOException {
+        return stat(fileName).isPresent();
+    }
+
+    // Method to copy a stream into a stored PDF file
+    default void put(String fileName, InputStream inputStream) throws Exception {
+        write(fileName, inputStream::transferTo);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+// Metadata of a stored PDF file, with its local path when the backend stores it on the local file system (null otherwise)
+public record PdfStorageEntry(String fileName, long size, Instant lastModified, Path localPath) {
+}
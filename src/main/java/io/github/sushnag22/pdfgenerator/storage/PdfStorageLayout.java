@@ -0,0 +1,127 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import io.github.sushnag22.pdfgenerator.util.PdfFileNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+@Service
+public class PdfStorageLayout {
+
+    // Logger to log the events
+    private static final Logger logger = LoggerFactory.getLogger(PdfStorageLayout.class);
+
+    // Number of hexadecimal characters of the shard key used per directory level
+    private static final int SHARD_WIDTH = 2;
+
+    // Directory where all the PDF files will be stored
+    @Value("${pdf.storage.path}")
+    private String PDF_DIRECTORY;
+
+    // Storage backend of the PDF files, the layout only exists on disk for the local backend
+    @Value("${pdf.storage.backend}")
+    private String STORAGE_BACKEND;
+
+    // Number of directory levels the files are spread over (e.g. 2 stores "<hash>" as "ab/cd/<name>", 0 stores all files flat)
+    @Value("${pdf.storage.shard-depth}")
+    private int SHARD_DEPTH;
+
+    // Whether the files of a flat directory are moved into the sharded layout in the background at startup
+    @Value("${pdf.storage.migrate-flat-layout}")
+    private boolean MIGRATE_FLAT_LAYOUT;
+
+    // Method to resolve the path where a PDF file is stored in the sharded layout
+    public Path resolve(String fileName) {
+        Path directory = Paths.get(PDF_DIRECTORY);
+        String shardKey = PdfFileNames.shardKeyOf(fileName);
+        for (int level = 0; level < SHARD_DEPTH; level++) {
+            directory = directory.resolve(shardKey.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH));
+        }
+        return directory.resolve(fileName);
+    }
+
+    // Method to locate a stored PDF file, falling back to the flat layout for files which are not migrated yet
+    public Path locate(String fileName) {
+        Path path = resolve(fileName);
+        if (SHARD_DEPTH > 0 && !Files.exists(path)) {
+            Path flatPath = Paths.get(PDF_DIRECTORY, fileName);
+            if (Files.exists(flatPath)) {
+                return flatPath;
+            }
+        }
+        return path;
+    }
+
+    // Method to resolve the path where a PDF file is written, creating its directory if needed
+    public Path prepareWrite(String fileName) throws IOException {
+        Path path = resolve(fileName);
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    // Method to list all the stored PDF files in the sharded and in the flat layout, the stream must be closed
+    public Stream<Path> listFiles() throws IOException {
+        Path directory = Paths.get(PDF_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.walk(directory, SHARD_DEPTH + 1)
+                .filter(path -> path.getFileName().toString().endsWith(PdfFileNames.EXTENSION))
+                .filter(Files::isRegularFile);
+    }
+
+    // Method to start the migration of a flat directory in the background once the application is ready, only for the local backend
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (MIGRATE_FLAT_LAYOUT && SHARD_DEPTH > 0 && "local".equals(STORAGE_BACKEND)) {
+            Thread.ofPlatform()
+                    .name("pdf-storage-migration")
+                    .daemon()
+                    .start(this::migrateFlatLayout);
+        }
+    }
+
+    // Method to move the PDF files of the flat layout into the sharded layout, safe to run while the application serves requests
+    public void migrateFlatLayout() {
+        Path directory = Paths.get(PDF_DIRECTORY);
+        long migrated = 0;
+
+        // Iterate lazily over the directory, it may contain millions of files
+        try (DirectoryStream<Path> flatFiles = Files.newDirectoryStream(directory, "*" + PdfFileNames.EXTENSION)) {
+            for (Path flatFile : flatFiles) {
+                if (!Files.isRegularFile(flatFile)) {
+                    continue;
+                }
+                String fileName = flatFile.getFileName().toString();
+                Path path = prepareWrite(fileName);
+
+                // Keep the copy which is already sharded (e.g. rendered again meanwhile), otherwise move the file atomically
+                if (Files.exists(path)) {
+                    Files.delete(flatFile);
+                } else {
+                    Files.move(flatFile, path, StandardCopyOption.ATOMIC_MOVE);
+                }
+
+                migrated++;
+                if (migrated % 10000 == 0) {
+                    logger.info("PDF storage migration in progress: {} files migrated", migrated);
+                }
+            }
+            logger.info("PDF storage migration finished: {} files migrated", migrated);
+        } catch (Exception exception) {
+            // Log the error if the migration fails, it can be restarted and continues with the remaining files
+            logger.error("PDF storage migration failed after {} files", migrated, exception);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@ConditionalOnProperty(name = "pdf.storage.backend", havingValue = "s3")
+
+// Storage backend keeping the PDF files in an S3 compatible object store
+public class S3PdfStorage implements PdfStorage {
+
+    // Content type of the stored objects
+    private static final String CONTENT_TYPE = "application/pdf";
+
+    // Smallest part size accepted by S3 for a multipart upload
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    // Initial size of the part buffer, which grows with the content so that a small PDF does not allocate a whole part
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    // Bucket where the PDF files are stored
+    @Value("${pdf.storage.s3.bucket}")
+    private String BUCKET;
+
+    // Prefix of the object keys (e.g. "pdfs/")
+    @Value("${pdf.storage.s3.key-prefix}")
+    private String KEY_PREFIX;
+
+    // Size of the parts of a multipart upload, files smaller than a part are uploaded with a single request
+    @Value("${pdf.storage.s3.part-size}")
+    private int PART_SIZE;
+
+    // Client of the object store
+    private final S3Client s3Client;
+
+    // Constructor based dependency injection
+    @Autowired
+    public S3PdfStorage(S3Client s3Client) {
+        this.s3Client = s3Client;
+    }
+
+    @Override
+    public void write(String fileName, ContentWriter contentWriter) throws Exception {
+
+        // Stream the content into the object store part by part, so that a large PDF is never fully buffered
+        MultipartUploadOutputStream outputStream = new MultipartUploadOutputStream(keyOf(fileName), Math.max(PART_SIZE, MIN_PART_SIZE));
+        try {
+            contentWriter.writeTo(outputStream);
+            outputStream.complete();
+        } catch (Exception exception) {
+            outputStream.abort();
+            throw exception;
+        }
+    }
+
+    @Override
+    public InputStream openInputStream(String fileName) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(keyOf(fileName))
+                .build());
+    }
+
+    @Override
+    public Optional<PdfStorageEntry> stat(String fileName) {
+        try {
+            HeadObjectResponse headObjectResponse = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(BUCKET)
+                    .key(keyOf(fileName))
+                    .build());
+            return Optional.of(new PdfStorageEntry(fileName, headObjectResponse.contentLength(), headObjectResponse.lastModified(), null));
+        } catch (NoSuchKeyException noSuchKeyException) {
+            return Optional.empty();
+        } catch (S3Exception s3Exception) {
+            if (s3Exception.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw s3Exception;
+        }
+    }
+
+    @Override
+    public boolean delete(String fileName) {
+        if (stat(fileName).isEmpty()) {
+            return false;
+        }
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(keyOf(fileName))
+                .build());
+        return true;
+    }
+
+    @Override
+    public Stream<String> listFileNames() {
+        return s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(BUCKET)
+                        .prefix(KEY_PREFIX)
+                        .build())
+                .contents()
+                .stream()
+                .map(s3Object -> s3Object.key().substring(KEY_PREFIX.length()))
+                .filter(fileName -> !fileName.contains("/"));
+    }
+
+    // Helper method to get the object key of a PDF file
+    private String keyOf(String fileName) {
+        return KEY_PREFIX + fileName;
+    }
+
+    // Output stream uploading the content in parts, with a single request if it fits into one part
+    class MultipartUploadOutputStream extends OutputStream {
+
+        // Key of the uploaded object
+        private final String key;
+
+        // Size of a part
+        private final int partSize;
+
+        // Buffer holding the current part, grown up to the part size as the content arrives and then reused for the next parts
+        private byte[] buffer;
+
+        // Number of bytes in the buffer
+        private int position;
+
+        // Id of the multipart upload, created with the first full part
+        private String uploadId;
+
+        // Parts uploaded so far
+        private final List<CompletedPart> completedParts = new ArrayList<>();
+
+        // Constructor to initialize the upload
+        MultipartUploadOutputStream(String key, int partSize) {
+            this.key = key;
+            this.partSize = partSize;
+            this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, partSize)];
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(position + 1);
+            buffer[position++] = (byte) b;
+            if (position == partSize) {
+                uploadPart();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                int count = Math.min(length, partSize - position);
+                ensureCapacity(position + count);
+                System.arraycopy(bytes, offset, buffer, position, count);
+                position += count;
+                offset += count;
+                length -= count;
+                if (position == partSize) {
+                    uploadPart();
+                }
+            }
+        }
+
+        // Method to upload the remaining content and make the object visible
+        void complete() {
+
+            // Upload the whole content with a single request if no part was uploaded yet
+            if (uploadId == null) {
+                s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(BUCKET)
+                                .key(key)
+                                .contentType(CONTENT_TYPE)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, position), position));
+                return;
+            }
+
+            if (position > 0) {
+                uploadPart();
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(BUCKET)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        }
+
+        // Method to discard the uploaded parts
+        void abort() {
+            if (uploadId != null) {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(BUCKET)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build());
+            }
+        }
+
+        // Helper method to grow the buffer to hold at least the given number of bytes, doubling its size up to the part size
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, capacity), partSize));
+            }
+        }
+
+        // Helper method to upload the buffer as the next part
+        private void uploadPart() {
+            if (uploadId == null) {
+                uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(BUCKET)
+                        .key(key)
+                        .contentType(CONTENT_TYPE)
+                        .build()).uploadId();
+            }
+
+            int partNumber = completedParts.size() + 1;
+            UploadPartResponse uploadPartResponse = s3Client.uploadPart(UploadPartRequest.builder()
+                            .bucket(BUCKET)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) position)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, position), position));
+            completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(uploadPartResponse.eTag()).build());
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+// Feeds values straight into a message digest in a canonical, length-prefixed binary form, without building an intermediate string
+public class CanonicalHasher {
+
+    // Marker written instead of the length of a null value
+    private static final int NULL_MARKER = -1;
+
+    // Digest receiving the values
+    private final MessageDigest messageDigest;
+
+    // Buffer reused to encode the values before they are fed into the digest
+    private final byte[] buffer = new byte[256];
+
+    // Constructor to initialize the digest
+    public CanonicalHasher(MessageDigest messageDigest) {
+        this.messageDigest = messageDigest;
+    }
+
+    // Method to feed an integer into the digest
+    public CanonicalHasher putInt(int value) {
+        writeInt(value, 0);
+        messageDigest.update(buffer, 0, 4);
+        return this;
+    }
+
+    // Method to feed a nullable integer into the digest
+    public CanonicalHasher putInteger(Integer value) {
+        if (value == null) {
+            return putInt(NULL_MARKER).putInt(0);
+        }
+        return putInt(1).putInt(value);
+    }
+
+    // Method to feed a string into the digest as its length followed by its UTF-16 code units
+    public CanonicalHasher putString(String value) {
+        if (value == null) {
+            return putInt(NULL_MARKER);
+        }
+        putInt(value.length());
+
+        // Encode the characters in chunks which fit into the buffer
+        int offset = 0;
+        while (offset < value.length()) {
+            int count = Math.min(value.length() - offset, buffer.length / 2);
+            for (int index = 0; index < count; index++) {
+                char character = value.charAt(offset + index);
+                buffer[index * 2] = (byte) (character >>> 8);
+                buffer[index * 2 + 1] = (byte) character;
+            }
+            messageDigest.update(buffer, 0, count * 2);
+            offset += count;
+        }
+        return this;
+    }
+
+    // Method to feed a decimal into the digest by its numeric value, so that e.g. 25.5 and 25.50 hash the same
+    public CanonicalHasher putDecimal(BigDecimal value) {
+        if (value == null) {
+            return putInt(NULL_MARKER);
+        }
+        BigDecimal normalized = value.stripTrailingZeros();
+        byte[] unscaledValue = normalized.unscaledValue().toByteArray();
+        putInt(unscaledValue.length);
+        putInt(normalized.scale());
+        messageDigest.update(unscaledValue);
+        return this;
+    }
+
+    // Method to complete the digest and return it as a lowercase hexadecimal string
+    public String toHex() {
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    // Helper method to write an integer into the buffer in big-endian order
+    private void writeInt(int value, int offset) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
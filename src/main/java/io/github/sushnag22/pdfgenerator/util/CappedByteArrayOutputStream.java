@@ -0,0 +1,48 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+// Output stream which keeps the written bytes in memory up to a limit, and stops keeping them once the limit is exceeded
+public class CappedByteArrayOutputStream extends OutputStream {
+
+    // Maximum number of bytes kept
+    private final int limit;
+
+    // Bytes kept so far, null once the limit is exceeded
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    // Constructor to initialize the limit
+    public CappedByteArrayOutputStream(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        if (buffer == null) {
+            return;
+        }
+        if (buffer.size() + length > limit) {
+
+            // Release the bytes kept so far, the content is too large to be kept
+            buffer = null;
+            return;
+        }
+        buffer.write(bytes, offset, length);
+    }
+
+    // Method to check if the limit was exceeded
+    public boolean isOverflowed() {
+        return buffer == null;
+    }
+
+    // Method to get the written bytes, null if the limit was exceeded
+    public byte[] toByteArray() {
+        return buffer == null ? null : buffer.toByteArray();
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Output stream which counts the bytes written to the underlying output stream
+public class CountingOutputStream extends OutputStream {
+
+    // Output stream receiving the bytes
+    private final OutputStream outputStream;
+
+    // Number of bytes written so far
+    private long count;
+
+    // Constructor to initialize the output stream
+    public CountingOutputStream(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        outputStream.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        outputStream.write(bytes, offset, length);
+        count += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    // Method to get the number of bytes written so far
+    public long getCount() {
+        return count;
+    }
+}
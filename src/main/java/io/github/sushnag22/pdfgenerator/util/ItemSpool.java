@@ -0,0 +1,131 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Append-only list of items kept in a temporary file, so that the items of a huge invoice can be read again without holding them in memory
+public class ItemSpool implements Iterable<ItemDetailsModel>, Closeable {
+
+    // Size of the buffers of the temporary file
+    private static final int BUFFER_SIZE = 65536;
+
+    // Temporary file holding the items
+    private final Path file;
+
+    // Stream appending the items to the temporary file
+    private final DataOutputStream dataOutputStream;
+
+    // Streams opened to read the items again, closed with the spool
+    private final List<DataInputStream> readers = new ArrayList<>();
+
+    // Number of items appended so far
+    private int size;
+
+    // Constructor to create the temporary file in the given directory (or the default temporary directory if null)
+    public ItemSpool(Path directory) throws IOException {
+        file = directory == null
+                ? Files.createTempFile("pdf-items-", ".spool")
+                : Files.createTempFile(directory, "pdf-items-", ".spool");
+        dataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    // Method to append an item to the spool
+    public void add(ItemDetailsModel item) throws IOException {
+        writeString(item.getName());
+        dataOutputStream.writeBoolean(item.getQuantity() != null);
+        dataOutputStream.writeInt(item.getQuantity() == null ? 0 : item.getQuantity());
+        writeString(item.getRate() == null ? null : item.getRate().toString());
+        writeString(item.getAmount() == null ? null : item.getAmount().toString());
+        size++;
+    }
+
+    // Method to get the number of items appended so far
+    public int size() {
+        return size;
+    }
+
+    // Method to read the items appended so far in order, every call reads the temporary file again into new item objects
+    @Override
+    public Iterator<ItemDetailsModel> iterator() {
+        try {
+            dataOutputStream.flush();
+            DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            readers.add(dataInputStream);
+            int count = size;
+            return new Iterator<>() {
+
+                // Number of items read so far
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return position < count;
+                }
+
+                @Override
+                public ItemDetailsModel next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    try {
+                        String name = readString(dataInputStream);
+                        boolean hasQuantity = dataInputStream.readBoolean();
+                        int quantity = dataInputStream.readInt();
+                        String rate = readString(dataInputStream);
+                        String amount = readString(dataInputStream);
+                        position++;
+                        return new ItemDetailsModel(name, hasQuantity ? quantity : null,
+                                rate == null ? null : new BigDecimal(rate), amount == null ? null : new BigDecimal(amount));
+                    } catch (EOFException exception) {
+                        throw new NoSuchElementException("Item spool is truncated");
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                }
+            };
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // Method to close the streams and delete the temporary file
+    @Override
+    public void close() throws IOException {
+        try {
+            dataOutputStream.close();
+            for (DataInputStream reader : readers) {
+                reader.close();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Helper method to write a nullable string
+    private void writeString(String value) throws IOException {
+        dataOutputStream.writeBoolean(value != null);
+        if (value != null) {
+            dataOutputStream.writeUTF(value);
+        }
+    }
+
+    // Helper method to read a nullable string
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        return dataInputStream.readBoolean() ? dataInputStream.readUTF() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Helper methods for the names of the stored PDF files (<seller>_<buyer>_<hash>.pdf)
+public final class PdfFileNames {
+
+    // Extension of the stored PDF files
+    public static final String EXTENSION = ".pdf";
+
+    // Utility class, not to be instantiated
+    private PdfFileNames() {
+    }
+
+    // Method to check if a requested file name is a plain PDF file name which cannot escape the storage directory
+    public static boolean isValid(String fileName) {
+        return fileName != null
+                && fileName.length() > EXTENSION.length()
+                && fileName.endsWith(EXTENSION)
+                && fileName.indexOf('/') < 0
+                && fileName.indexOf('\\') < 0
+                && !fileName.contains("..");
+    }
+
+    // Method to get the content hash part of a file name (the part after the last underscore, without the extension)
+    public static String hashOf(String fileName) {
+        String baseName = fileName.endsWith(EXTENSION) ? fileName.substring(0, fileName.length() - EXTENSION.length()) : fileName;
+        return baseName.substring(baseName.lastIndexOf('_') + 1);
+    }
+
+    // Method to get a hexadecimal key used to spread the files over the storage directories, the content hash when it is hexadecimal
+    public static String shardKeyOf(String fileName) {
+        String hash = hashOf(fileName);
+        if (hash.length() >= 8 && isLowercaseHex(hash)) {
+            return hash;
+        }
+
+        // Names without a hexadecimal hash (e.g. stored by an older version) are spread by the hash of the whole name
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fileName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException("SHA-256 is not available", noSuchAlgorithmException);
+        }
+    }
+
+    // Helper method to check if a string only contains lowercase hexadecimal digits
+    private static boolean isLowercaseHex(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if ((character < '0' || character > '9') && (character < 'a' || character > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
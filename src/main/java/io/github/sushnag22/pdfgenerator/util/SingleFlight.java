@@ -0,0 +1,68 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Coalesces concurrent calls with the same key, so that only the first caller does the work and the others wait for its result
+public class SingleFlight<K, V> {
+
+    // Results of the calls which are currently in flight
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+
+    // Number of calls which waited for an in-flight call instead of doing the work
+    private final LongAdder coalescedCount = new LongAdder();
+
+    // Method to execute the callable, or wait for the in-flight call with the same key
+    public V execute(K key, Callable<V> callable) throws Exception {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlightCall = inFlightCalls.putIfAbsent(key, future);
+
+        // Wait for the result of the in-flight call
+        if (inFlightCall != null) {
+            coalescedCount.increment();
+            return await(inFlightCall);
+        }
+
+        try {
+            V value = callable.call();
+            future.complete(value);
+            return value;
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+
+            // Remove the entry once the call is finished, so that later calls do the work again
+            inFlightCalls.remove(key, future);
+        }
+    }
+
+    // Method to get the number of calls which were coalesced with an in-flight call
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    // Method to get the number of calls which are currently in flight
+    public int getInFlightCount() {
+        return inFlightCalls.size();
+    }
+
+    // Helper method to wait for the result of an in-flight call and rethrow its failure as is
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw executionException;
+        }
+    }
+}
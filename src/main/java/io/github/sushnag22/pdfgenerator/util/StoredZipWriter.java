@@ -0,0 +1,173 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Writer of a ZIP archive with STORED (uncompressed) entries into a channel, the content of each entry is written by the caller as is
+public class StoredZipWriter {
+
+    // Content of an entry, written straight into the channel of the archive
+    @FunctionalInterface
+    public interface EntryContent {
+        void writeTo(WritableByteChannel channel) throws IOException;
+    }
+
+    // Signatures and sizes of the ZIP records
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+
+    // Version 4.5 is needed to read the ZIP64 records, 2.0 otherwise
+    private static final short VERSION_ZIP64 = 45;
+    private static final short VERSION_DEFAULT = 20;
+
+    // Names are encoded in UTF-8 (general purpose bit 11)
+    private static final short FLAG_UTF8 = 0x0800;
+
+    // Largest values of the 16 and 32 bit fields, larger values are moved to the ZIP64 records
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final long MAX_OFFSET = 0xFFFFFFFFL;
+
+    // Channel receiving the archive
+    private final WritableByteChannel channel;
+
+    // Central directory, written once all the entries are written
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+    // Number of bytes written so far, which is the offset of the next record
+    private long offset;
+
+    // Number of entries written so far
+    private int entryCount;
+
+    // Constructor to initialize the channel
+    public StoredZipWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // Method to write an entry whose size and CRC-32 are known up front, so that no data descriptor is needed
+    public void writeEntry(String name, long size, long crc32, Instant lastModified, EntryContent entryContent) throws IOException {
+        if (size >= MAX_OFFSET) {
+            throw new IOException("ZIP entry too large: " + name);
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int dosTime = toDosTime(lastModified);
+        long localHeaderOffset = offset;
+
+        // Local file header, followed by the content as is
+        ByteBuffer localHeader = ByteBuffer.allocate(LOCAL_FILE_HEADER_SIZE + nameBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        localHeader.putInt(LOCAL_FILE_HEADER_SIGNATURE)
+                .putShort(VERSION_DEFAULT)
+                .putShort(FLAG_UTF8)
+                .putShort((short) 0)
+                .putInt(dosTime)
+                .putInt((int) crc32)
+                .putInt((int) size)
+                .putInt((int) size)
+                .putShort((short) nameBytes.length)
+                .putShort((short) 0)
+                .put(nameBytes);
+        write(localHeader.flip());
+        entryContent.writeTo(channel);
+        offset += size;
+
+        // Central directory header, with the offset in a ZIP64 extra field when it does not fit in 32 bits
+        boolean zip64Offset = localHeaderOffset >= MAX_OFFSET;
+        ByteBuffer centralHeader = ByteBuffer.allocate(CENTRAL_DIRECTORY_HEADER_SIZE + nameBytes.length + (zip64Offset ? 12 : 0))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        centralHeader.putInt(CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort(zip64Offset ? VERSION_ZIP64 : VERSION_DEFAULT)
+                .putShort(zip64Offset ? VERSION_ZIP64 : VERSION_DEFAULT)
+                .putShort(FLAG_UTF8)
+                .putShort((short) 0)
+                .putInt(dosTime)
+                .putInt((int) crc32)
+                .putInt((int) size)
+                .putInt((int) size)
+                .putShort((short) nameBytes.length)
+                .putShort((short) (zip64Offset ? 12 : 0))
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt(zip64Offset ? (int) MAX_OFFSET : (int) localHeaderOffset)
+                .put(nameBytes);
+        if (zip64Offset) {
+            centralHeader.putShort((short) 0x0001).putShort((short) 8).putLong(localHeaderOffset);
+        }
+        centralDirectory.write(centralHeader.array());
+        entryCount++;
+    }
+
+    // Method to write the central directory and the end records, the channel is left open
+    public void finish() throws IOException {
+        long centralDirectoryOffset = offset;
+        long centralDirectorySize = centralDirectory.size();
+        write(ByteBuffer.wrap(centralDirectory.toByteArray()));
+
+        // ZIP64 end records when the number of entries or the offsets do not fit in the classic end record
+        boolean zip64 = entryCount >= MAX_ENTRIES || centralDirectoryOffset >= MAX_OFFSET || offset >= MAX_OFFSET;
+        if (zip64) {
+            long zip64EndOffset = offset;
+            ByteBuffer zip64End = ByteBuffer.allocate(56 + 20).order(ByteOrder.LITTLE_ENDIAN);
+            zip64End.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                    .putLong(44)
+                    .putShort(VERSION_ZIP64)
+                    .putShort(VERSION_ZIP64)
+                    .putInt(0)
+                    .putInt(0)
+                    .putLong(entryCount)
+                    .putLong(entryCount)
+                    .putLong(centralDirectorySize)
+                    .putLong(centralDirectoryOffset);
+            zip64End.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE)
+                    .putInt(0)
+                    .putLong(zip64EndOffset)
+                    .putInt(1);
+            write(zip64End.flip());
+        }
+
+        ByteBuffer end = ByteBuffer.allocate(22).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) Math.min(entryCount, MAX_ENTRIES))
+                .putShort((short) Math.min(entryCount, MAX_ENTRIES))
+                .putInt((int) Math.min(centralDirectorySize, MAX_OFFSET))
+                .putInt((int) Math.min(centralDirectoryOffset, MAX_OFFSET))
+                .putShort((short) 0);
+        write(end.flip());
+    }
+
+    // Helper method to write a buffer completely and count its bytes
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer);
+        }
+    }
+
+    // Helper method to convert a time into the MS-DOS date and time of the ZIP headers, in the local time zone
+    private static int toDosTime(Instant instant) {
+        LocalDateTime dateTime = LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        if (dateTime.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (dateTime.getYear() - 1980) << 25
+                | dateTime.getMonthValue() << 21
+                | dateTime.getDayOfMonth() << 16
+                | dateTime.getHour() << 11
+                | dateTime.getMinute() << 5
+                | dateTime.getSecond() >> 1;
+    }
+}
@@ -1,48 +1,76 @@
 package io.github.sushnag22.pdfgenerator.util;
 
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.FieldError;
 
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 public class StringUtil {
 
+    // Pattern splitting camel case into words (e.g., sellerName -> seller Name)
+    private static final Pattern CAMEL_CASE_PATTERN = Pattern.compile("([a-z])([A-Z])");
+
+    // Abbreviations that need to be capitalized, with the pattern matching them in any case
+    private static final Map<Pattern, String> ABBREVIATIONS = Map.of(
+            Pattern.compile("gstin", Pattern.CASE_INSENSITIVE), "GSTIN"
+    );
+
+    // Labels of the fields of the models, computed once so that the error message of an invalid request does not run any regex
+    private static final Map<String, String> FIELD_LABELS = buildFieldLabels(PdfDataModel.class, ItemDetailsModel.class);
+
     // Helper method to format the field name (capitalize first letter, handle camel case, and detect abbreviations)
     public String formatFieldName(String field) {
+        String label = FIELD_LABELS.get(field);
+        return label != null ? label : computeFieldLabel(field);
+    }
 
-        // List of abbreviations that need to be capitalized
-        List<String> abbreviations = List.of("gstin");
+    // Helper method to compute the label of a field name which is not in the precomputed table
+    private static String computeFieldLabel(String field) {
 
-        // Use a regex to split camel case into words (e.g., sellerName -> Seller Name)
+        // Split camel case into words (e.g., sellerName -> Seller Name)
         String formattedField = splitCamelCase(field);
 
         // Check if the field contains an abbreviation (e.g., GSTIN) and capitalize it
-        for (String abbreviation : abbreviations) {
-            if (formattedField.toLowerCase().contains(abbreviation.toLowerCase())) {
-                formattedField = formattedField.replaceAll("(?i)" + abbreviation, abbreviation.toUpperCase());
-            }
+        for (Map.Entry<Pattern, String> abbreviation : ABBREVIATIONS.entrySet()) {
+            formattedField = abbreviation.getKey().matcher(formattedField).replaceAll(abbreviation.getValue());
         }
 
         // Capitalize the first letter of each word except for abbreviations
         return capitalizeWords(formattedField);
     }
 
+    // Helper method to build the labels of the fields of the given model classes
+    private static Map<String, String> buildFieldLabels(Class<?>... modelClasses) {
+        Map<String, String> fieldLabels = new HashMap<>();
+        for (Class<?> modelClass : modelClasses) {
+            for (Field field : modelClass.getDeclaredFields()) {
+                if (!field.isSynthetic()) {
+                    fieldLabels.put(field.getName(), computeFieldLabel(field.getName()));
+                }
+            }
+        }
+        return Map.copyOf(fieldLabels);
+    }
+
     // Helper method to split camel case into words
-    String splitCamelCase(String field) {
+    static String splitCamelCase(String field) {
 
-        // Add a space before each uppercase letter that's followed by a lowercase letter or another uppercase
-        Pattern pattern = Pattern.compile("([a-z])([A-Z])");
-        Matcher matcher = pattern.matcher(field);
-        return matcher.replaceAll("$1 $2");
+        // Add a space before each uppercase letter that's preceded by a lowercase letter
+        return CAMEL_CASE_PATTERN.matcher(field).replaceAll("$1 $2");
     }
 
     // Helper method to capitalize the first letter of each word in the string
-    String capitalizeWords(String field) {
-        StringBuilder result = new StringBuilder();
+    static String capitalizeWords(String field) {
+        StringBuilder result = new StringBuilder(field.length() + 1);
 
         // Split the string into words based on spaces
         String[] words = field.split(" ");
@@ -58,7 +86,7 @@ public class StringUtil {
                 result.append(word.substring(0, 1).toUpperCase())
                         .append(word.substring(1).toLowerCase());
             }
-            result.append(" ");
+            result.append(' ');
         }
 
         // Remove the trailing space
@@ -68,30 +96,29 @@ public class StringUtil {
     // Helper method to format the error message with correct grammar
     public String getFormattedErrorMessage(List<FieldError> fieldErrors) {
 
-        // Extract the field names with validation errors
-        List<String> fieldNames = fieldErrors.stream()
-                .map(FieldError::getField)
-                .distinct()
-                .map(this::formatFieldName)
-                .toList();
+        // Extract the field names with validation errors, once per field
+        Set<String> fields = new LinkedHashSet<>();
+        for (FieldError fieldError : fieldErrors) {
+            fields.add(fieldError.getField());
+        }
 
         // Handle the formatting for the error message
-        if (fieldNames.isEmpty()) {
+        if (fields.isEmpty()) {
 
             // Handle the case where no fields are mandatory
             return "No fields are mandatory";
-        } else if (fieldNames.size() == 1) {
-
-            // Handle the singular case with a quoted field name
-            return "'" + fieldNames.getFirst() + "' is mandatory";
-        } else {
-
-            // Handle the plural case with quoted field names separated by commas and an 'and'
-            String allButLast = fieldNames.subList(0, fieldNames.size() - 1).stream()
-                    .map(field -> "'" + field + "'")
-                    .collect(Collectors.joining(", "));
-            String lastField = "'" + fieldNames.getLast() + "'";
-            return allButLast + ", and " + lastField + " are mandatory";
         }
+
+        // Quote the field names, separated by commas and an 'and' before the last one
+        StringBuilder message = new StringBuilder();
+        int index = 0;
+        for (String field : fields) {
+            if (index > 0) {
+                message.append(index == fields.size() - 1 ? ", and " : ", ");
+            }
+            message.append('\'').append(formatFieldName(field)).append('\'');
+            index++;
+        }
+        return message.append(fields.size() == 1 ? " is mandatory" : " are mandatory").toString();
     }
 }
@@ -0,0 +1,45 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Output stream which writes the same bytes to two output streams (e.g. the response and a file)
+public class TeeOutputStream extends OutputStream {
+
+    // Output streams receiving the bytes
+    private final OutputStream primary;
+    private final OutputStream secondary;
+
+    // Constructor to initialize the output streams
+    public TeeOutputStream(OutputStream primary, OutputStream secondary) {
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        primary.write(b);
+        secondary.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        primary.write(bytes, offset, length);
+        secondary.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        primary.flush();
+        secondary.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            primary.close();
+        } finally {
+            secondary.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import org.thymeleaf.IThrottledTemplateProcessor;
+
+import java.io.CharArrayWriter;
+import java.io.Reader;
+
+// Reader which pulls the output of a template in chunks as it is read, so that the whole output is never held as a string
+public class ThrottledTemplateReader extends Reader {
+
+    // Maximum number of characters processed per chunk
+    private static final int CHUNK_SIZE = 8192;
+
+    // Processor producing the output of the template
+    private final IThrottledTemplateProcessor throttledTemplateProcessor;
+
+    // Buffer receiving the current chunk
+    private final CharArrayWriter chunkWriter = new CharArrayWriter(CHUNK_SIZE);
+
+    // Current chunk and the position of the next character to read
+    private char[] chunk = new char[0];
+    private int position;
+
+    // Time spent processing the template so far
+    private long processingNanos;
+
+    // Constructor to initialize the template processor
+    public ThrottledTemplateReader(IThrottledTemplateProcessor throttledTemplateProcessor) {
+        this.throttledTemplateProcessor = throttledTemplateProcessor;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        // Process the next chunk of the template once the current one is consumed
+        while (position == chunk.length) {
+            if (throttledTemplateProcessor.isFinished()) {
+                return -1;
+            }
+            long start = System.nanoTime();
+            chunkWriter.reset();
+            throttledTemplateProcessor.process(CHUNK_SIZE, chunkWriter);
+            chunk = chunkWriter.toCharArray();
+            position = 0;
+            processingNanos += System.nanoTime() - start;
+        }
+
+        int count = Math.min(length, chunk.length - position);
+        System.arraycopy(chunk, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        chunk = new char[0];
+        position = 0;
+    }
+
+    // Method to get the time spent processing the template so far
+    public long getProcessingNanos() {
+        return processingNanos;
+    }
+}
@@ -6,9 +6,17 @@ import jakarta.validation.ConstraintValidatorContext;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public class ItemDetailsValidator implements ConstraintValidator<ItemDetailsValidation, List<ItemDetailsModel>> {
 
+    // Messages of the item violations
+    private static final String EMPTY_ITEMS_MESSAGE = "Item details cannot be empty";
+    private static final String INVALID_QUANTITY_MESSAGE = "Item quantity is mandatory and must be greater than 0";
+    private static final String INVALID_RATE_MESSAGE = "Item rate is mandatory and must be greater than 0";
+    private static final String MISSING_AMOUNT_MESSAGE = "Item amount is mandatory and must be greater than 0";
+    private static final String MISMATCHED_AMOUNT_MESSAGE = "Item amount must be equal to quantity multiplied by rate";
+
     @Override
     public boolean isValid(List<ItemDetailsModel> items, ConstraintValidatorContext context) {
         // Clear existing violations
@@ -17,52 +25,92 @@ public class ItemDetailsValidator implements ConstraintValidator<ItemDetailsVali
         if (items == null || items.isEmpty()) {
 
             // Add validation for empty item details
-            context.buildConstraintViolationWithTemplate("Item details cannot be empty")
+            context.buildConstraintViolationWithTemplate(EMPTY_ITEMS_MESSAGE)
                     .addConstraintViolation();
             return false;
         }
 
-        boolean isValid = true;
+        // Kinds of violations found in the items, each one is reported once since the violations do not carry the item index
+        boolean invalidQuantity = false;
+        boolean invalidRate = false;
+        boolean missingAmount = false;
+        boolean mismatchedAmount = false;
 
+        // Single pass over the items, which stops as soon as every kind of violation is found
         for (ItemDetailsModel item : items) {
+            Integer quantity = item.getQuantity();
+            BigDecimal rate = item.getRate();
+            BigDecimal amount = item.getAmount();
 
             // Validate item quantity to be greater than 0
-            if (item.getQuantity() == null || item.getQuantity() <= 0) {
-                context.buildConstraintViolationWithTemplate("Item quantity is mandatory and must be greater than 0")
-                        .addPropertyNode("quantity")
-                        .addConstraintViolation();
-                isValid = false;
+            if (quantity == null || quantity <= 0) {
+                invalidQuantity = true;
             }
 
             // Validate item rate to be greater than 0
-            if (item.getRate() == null || item.getRate().compareTo(BigDecimal.ZERO) <= 0) {
-                context.buildConstraintViolationWithTemplate("Item rate is mandatory and must be greater than 0")
-                        .addPropertyNode("rate")
-                        .addConstraintViolation();
-                isValid = false;
+            if (rate == null || rate.signum() <= 0) {
+                invalidRate = true;
+            }
+
+            // Validate item amount to be present
+            if (amount == null) {
+                missingAmount = true;
             }
 
-            // Validate item amount to be greater than 0
-            if (item.getAmount() == null) {
-                context.buildConstraintViolationWithTemplate("Item amount is mandatory and must be greater than 0")
-                        .addPropertyNode("amount")
-                        .addConstraintViolation();
-                isValid = false;
+            // Check if amount matches quantity * rate, unless a mismatch was already found
+            if (!mismatchedAmount && quantity != null && rate != null && amount != null
+                    && amount.compareTo(rate.multiply(BigDecimal.valueOf(quantity.longValue()))) != 0) {
+                mismatchedAmount = true;
             }
 
-            // Check if amount matches quantity * rate
-            if (item.getQuantity() != null && item.getRate() != null && item.getAmount() != null) {
-                BigDecimal expectedAmount = item.getRate().multiply(BigDecimal.valueOf(item.getQuantity().longValue()));
-                if (item.getAmount().compareTo(expectedAmount) != 0) {
-                    context.buildConstraintViolationWithTemplate("Item amount must be equal to quantity multiplied by rate")
-                            .addPropertyNode("amount")
-                            .addConstraintViolation();
-                    isValid = false;
-                }
+            if (invalidQuantity && invalidRate && missingAmount && mismatchedAmount) {
+                break;
             }
         }
 
+        // Add the violations which were found
+        if (invalidQuantity) {
+            addViolation(context, INVALID_QUANTITY_MESSAGE, "quantity");
+        }
+        if (invalidRate) {
+            addViolation(context, INVALID_RATE_MESSAGE, "rate");
+        }
+        if (missingAmount) {
+            addViolation(context, MISSING_AMOUNT_MESSAGE, "amount");
+        }
+        if (mismatchedAmount) {
+            addViolation(context, MISMATCHED_AMOUNT_MESSAGE, "amount");
+        }
+
         // Return the overall validation result
-        return isValid;
+        return !(invalidQuantity || invalidRate || missingAmount || mismatchedAmount);
+    }
+
+    // Method to validate a single item on its own (e.g. while the items are streamed), returns the message of its first violation if any
+    public static Optional<String> findViolation(ItemDetailsModel item) {
+        Integer quantity = item.getQuantity();
+        BigDecimal rate = item.getRate();
+        BigDecimal amount = item.getAmount();
+
+        if (quantity == null || quantity <= 0) {
+            return Optional.of(INVALID_QUANTITY_MESSAGE);
+        }
+        if (rate == null || rate.signum() <= 0) {
+            return Optional.of(INVALID_RATE_MESSAGE);
+        }
+        if (amount == null) {
+            return Optional.of(MISSING_AMOUNT_MESSAGE);
+        }
+        if (amount.compareTo(rate.multiply(BigDecimal.valueOf(quantity.longValue()))) != 0) {
+            return Optional.of(MISMATCHED_AMOUNT_MESSAGE);
+        }
+        return Optional.empty();
+    }
+
+    // Helper method to add a violation on a property of the items
+    private void addViolation(ConstraintValidatorContext context, String message, String propertyName) {
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(propertyName)
+                .addConstraintViolation();
     }
 }
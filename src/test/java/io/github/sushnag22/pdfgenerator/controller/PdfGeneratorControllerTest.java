@@ -1,28 +1,57 @@
 package io.github.sushnag22.pdfgenerator.controller;
 
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.exception.RenderCapacityExceededException;
 import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobModel;
+import io.github.sushnag22.pdfgenerator.service.PdfBatchService;
+import io.github.sushnag22.pdfgenerator.service.PdfBulkService;
+import io.github.sushnag22.pdfgenerator.service.PdfDocumentService;
+import io.github.sushnag22.pdfgenerator.service.PdfExportService;
 import io.github.sushnag22.pdfgenerator.service.PdfGeneratorService;
+import io.github.sushnag22.pdfgenerator.service.PdfJobService;
+import io.github.sushnag22.pdfgenerator.service.PdfMergeService;
+import io.github.sushnag22.pdfgenerator.service.PdfRenderLimiter;
+import io.github.sushnag22.pdfgenerator.service.PdfStreamIngestService;
+import io.github.sushnag22.pdfgenerator.service.PdfTemplateRegistry;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageEntry;
 import io.github.sushnag22.pdfgenerator.util.StringUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 public class PdfGeneratorControllerTest {
@@ -35,6 +64,38 @@ public class PdfGeneratorControllerTest {
     @Mock
     private PdfGeneratorService pdfGeneratorService;
 
+    // Mock the PDF document service
+    @Mock
+    private PdfDocumentService pdfDocumentService;
+
+    // Mock the PDF batch service
+    @Mock
+    private PdfBatchService pdfBatchService;
+
+    // Mock the PDF job service
+    @Mock
+    private PdfJobService pdfJobService;
+
+    // Mock the streaming ingestion service
+    @Mock
+    private PdfStreamIngestService pdfStreamIngestService;
+
+    // Mock the bulk service
+    @Mock
+    private PdfBulkService pdfBulkService;
+
+    // Mock the merge service
+    @Mock
+    private PdfMergeService pdfMergeService;
+
+    // Mock the export service
+    @Mock
+    private PdfExportService pdfExportService;
+
+    // Mock the template registry
+    @Mock
+    private PdfTemplateRegistry pdfTemplateRegistry;
+
     // Mock the string utility
     @Mock
     private StringUtil stringUtil;
@@ -47,11 +108,14 @@ public class PdfGeneratorControllerTest {
     @Mock
     private PdfDataModel pdfDataModel;
 
-    // Setup method to initialize the mocks and set the PDF directory
+    // Setup method to initialize the mocks and set the batch size limit
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        ReflectionTestUtils.setField(pdfGeneratorController, "PDF_DIRECTORY", "/tmp/pdf");
+        ReflectionTestUtils.setField(pdfGeneratorController, "BATCH_MAX_SIZE", 10);
+        ReflectionTestUtils.setField(pdfGeneratorController, "MERGE_MAX_FILES", 10);
+        ReflectionTestUtils.setField(pdfGeneratorController, "EXPORT_MAX_FILES", 10);
+        when(pdfTemplateRegistry.contains(any())).thenReturn(true);
     }
 
     // Test the `generateAndStorePdf` method with validation errors
@@ -72,10 +136,313 @@ public class PdfGeneratorControllerTest {
         assertEquals("Seller name is required", response.getBody().get("message"));
     }
 
+    // Test the `generateAndStorePdf` method with a template which does not exist
+    @Test
+    public void testGenerateAndStorePdf_UnknownTemplate() {
+
+        // Mock an unknown template
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(pdfDataModel.getTemplateId()).thenReturn("missing");
+        when(pdfTemplateRegistry.contains("missing")).thenReturn(false);
+
+        // Call the method
+        ResponseEntity<Map<String, Object>> response = pdfGeneratorController.generateAndStorePdf(pdfDataModel, bindingResult);
+
+        // Assert the response status and body, and that nothing is rendered
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unknown template: missing", Objects.requireNonNull(response.getBody()).get("message"));
+        verifyNoInteractions(pdfDocumentService);
+    }
+
+    // Test the `generateAndStorePdf` method when the render is shed
+    @Test
+    public void testGenerateAndStorePdf_Shed() throws Exception {
+
+        // Mock a render shed by the limiter
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(pdfDocumentService.generateAndStore(pdfDataModel))
+                .thenThrow(new RenderCapacityExceededException("Render capacity exceeded. Please try again later.", 3));
+
+        // Call the method
+        ResponseEntity<Map<String, Object>> response = pdfGeneratorController.generateAndStorePdf(pdfDataModel, bindingResult);
+
+        // Assert the response status, the retry delay and the body
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(429, Objects.requireNonNull(response.getBody()).get("statusCode"));
+    }
+
+    // Test the `generateAndDownloadPdf` method when the async request completes before the body runs, e.g. after a disconnect
+    @Test
+    public void testGenerateAndDownloadPdf_PermitReleasedWhenBodyNeverRuns() throws Exception {
+        PdfTemplateRegistry.Template template = new PdfTemplateRegistry.Template("invoice", "0123456789abcdef", "invoice", "", null, 0, 0, 0);
+        PdfRenderLimiter.Permit permit = mock(PdfRenderLimiter.Permit.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(pdfTemplateRegistry.resolve(any())).thenReturn(template);
+        when(pdfGeneratorService.generateFileName(pdfDataModel, template)).thenReturn("Seller_Buyer_abc123.pdf");
+        when(pdfDocumentService.reserveRender("Seller_Buyer_abc123.pdf")).thenReturn(permit);
+
+        // Call the method
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        ResponseEntity<?> response = pdfGeneratorController.generateAndDownloadPdf(pdfDataModel, bindingResult, false, request);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        // Start the async request with an executor which never runs the body, then complete it
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        asyncManager.setTaskExecutor(mock(AsyncTaskExecutor.class));
+        asyncManager.startCallableProcessing(() -> null);
+        Objects.requireNonNull(request.getAsyncContext()).complete();
+
+        // Assert the slot is released without a latency sample
+        verify(permit).close();
+        verify(permit, never()).complete();
+        verify(pdfDocumentService, never()).streamPdf(any(), any(), any(), any(), anyBoolean());
+    }
+
+    // Test the `generateAndStoreStream` method with an invalid item
+    @Test
+    public void testGenerateAndStoreStream_InvalidItem() throws Exception {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        when(pdfStreamIngestService.generateAndStore(inputStream))
+                .thenThrow(new InvalidPdfDataException("Item 3: Item rate is mandatory and must be greater than 0"));
+
+        ResponseEntity<Map<String, Object>> response = pdfGeneratorController.generateAndStoreStream(inputStream);
+
+        // Assert response
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Failure", Objects.requireNonNull(response.getBody()).get("status"));
+        assertEquals("Item 3: Item rate is mandatory and must be greater than 0", response.getBody().get("message"));
+    }
+
+    // Test the `generateAndStoreBatch` method with an empty batch
+    @Test
+    public void testGenerateAndStoreBatch_EmptyBatch() {
+        ResponseEntity<Map<String, Object>> response = pdfGeneratorController.generateAndStoreBatch(Collections.emptyList());
+
+        // Assert response
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Failure", Objects.requireNonNull(response.getBody()).get("status"));
+        verifyNoInteractions(pdfBatchService);
+    }
+
+    // Test the `mergePdfs` method with a file which is not stored
+    @Test
+    public void testMergePdfs_FileNotFound() throws Exception {
+        List<String> fileNames = List.of("Seller_Buyer_first.pdf", "Seller_Buyer_unknown.pdf");
+        when(pdfMergeService.findMissing(fileNames)).thenReturn(Optional.of("Seller_Buyer_unknown.pdf"));
+
+        ResponseEntity<?> response = pdfGeneratorController.mergePdfs(fileNames, new MockHttpServletResponse());
+
+        // Assert response
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(pdfMergeService, never()).merge(any(), any());
+    }
+
+    // Test the `mergePdfs` method with a merge which takes longer than an async request would be allowed to
+    @Test
+    public void testMergePdfs_WrittenByRequestThread() throws Exception {
+        List<String> fileNames = List.of("Seller_Buyer_first.pdf", "Seller_Buyer_second.pdf");
+        when(pdfMergeService.findMissing(fileNames)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("%PDF-1.5 first pages".getBytes());
+            Thread.sleep(200);
+            outputStream.write(" last pages %%EOF".getBytes());
+            return null;
+        }).when(pdfMergeService).merge(eq(fileNames), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<?> responseEntity = pdfGeneratorController.mergePdfs(fileNames, response);
+
+        // Assert the whole PDF is written before the handler returns, without an async body the request timeout could abort
+        assertNull(responseEntity);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals("%PDF-1.5 first pages last pages %%EOF", response.getContentAsString());
+    }
+
+    // Test the `exportPdfs` method without any file or filter
+    @Test
+    public void testExportPdfs_NothingSelected() {
+        ResponseEntity<?> response = pdfGeneratorController.exportPdfs(null, null, null, null, new MockHttpServletResponse());
+
+        // Assert response
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(pdfExportService);
+    }
+
+    // Test the `exportPdfs` method with an export which takes longer than an async request would be allowed to
+    @Test
+    public void testExportPdfs_WrittenByRequestThread() throws Exception {
+        List<String> fileNames = List.of("Seller_Buyer_ab12cd34.pdf", "Seller_Buyer_ef56ab78.pdf");
+        when(pdfExportService.findMissing(fileNames)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("PK first entry".getBytes());
+            Thread.sleep(200);
+            outputStream.write(" last entry and central directory".getBytes());
+            return null;
+        }).when(pdfExportService).export(eq(fileNames), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<?> responseEntity = pdfGeneratorController.exportPdfs(fileNames, null, null, null, response);
+
+        // Assert the whole archive is written before the handler returns, without an async body the request timeout could abort
+        assertNull(responseEntity);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("application/zip", response.getContentType());
+        assertEquals("PK first entry last entry and central directory", response.getContentAsString());
+    }
+
+    // Test the `exportPdfs` method with a file which cannot be read before anything is written
+    @Test
+    public void testExportPdfs_FailureBeforeWrite() throws Exception {
+        List<String> fileNames = List.of("Seller_Buyer_ab12cd34.pdf");
+        when(pdfExportService.findMissing(fileNames)).thenReturn(Optional.empty());
+        doThrow(new IOException("Storage unavailable")).when(pdfExportService).export(eq(fileNames), any());
+
+        ResponseEntity<?> response = pdfGeneratorController.exportPdfs(fileNames, null, null, null, new MockHttpServletResponse());
+
+        // Assert an internal server error is returned instead of an empty archive
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    // Test the `getPdfJob` method for an unknown job
+    @Test
+    public void testGetPdfJob_NotFound() {
+        when(pdfJobService.getJob("unknown")).thenReturn(Optional.empty());
+
+        ResponseEntity<Map<String, Object>> response = pdfGeneratorController.getPdfJob("unknown");
+
+        // Assert response
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    // Test the `downloadPdfJobFile` method for a job which is not done yet
+    @Test
+    public void testDownloadPdfJobFile_NotDone() {
+        when(pdfJobService.getJob("queued")).thenReturn(Optional.of(new PdfJobModel("queued", Instant.now())));
+
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdfJobFile("queued", new MockHttpServletRequest());
+
+        // Assert response
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
     // Test the `downloadPdf` method for file not found error
     @Test
     public void testDownloadPdf_FileNotFound() {
-        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("nonExistingFile.pdf");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("nonExistingFile.pdf", new MockHttpServletRequest());
+
+        // Assert response
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    // Test the `downloadPdf` method with a matching If-None-Match header
+    @Test
+    public void testDownloadPdf_NotModified(@TempDir Path pdfDirectory) throws Exception {
+        Path file = Files.write(pdfDirectory.resolve("Seller_Buyer_abc123.pdf"), "%PDF-1.4 content".getBytes());
+        when(pdfDocumentService.findStoredPdf("Seller_Buyer_abc123.pdf"))
+                .thenReturn(Optional.of(new PdfStorageEntry("Seller_Buyer_abc123.pdf", Files.size(file), Instant.now(), file)));
+
+        // Request the file with the entity tag of the stored file
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pdf/download/Seller_Buyer_abc123.pdf");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc123\"");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("Seller_Buyer_abc123.pdf", request);
+
+        // Assert response
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc123\"", response.getHeaders().getETag());
+    }
+
+    // Test the `downloadPdf` method with a byte range
+    @Test
+    public void testDownloadPdf_Range(@TempDir Path pdfDirectory) throws Exception {
+        Path file = Files.write(pdfDirectory.resolve("Seller_Buyer_abc123.pdf"), "%PDF-1.4 content".getBytes());
+        when(pdfDocumentService.findStoredPdf("Seller_Buyer_abc123.pdf"))
+                .thenReturn(Optional.of(new PdfStorageEntry("Seller_Buyer_abc123.pdf", Files.size(file), Instant.now(), file)));
+
+        when(pdfDocumentService.isCacheable(anyLong())).thenReturn(true);
+
+        // Request the first five bytes of the file
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pdf/download/Seller_Buyer_abc123.pdf");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-4");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("Seller_Buyer_abc123.pdf", request);
+
+        // Assert the range is read from the file without loading the whole file into the cache
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 0-4/16", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingResponseBody) Objects.requireNonNull(response.getBody())).writeTo(body);
+        assertEquals("%PDF-", body.toString());
+        verify(pdfDocumentService, never()).streamIntoCache(anyString(), any());
+    }
+
+    // Test the `downloadPdf` method with a full download of a file small enough to be cached
+    @Test
+    public void testDownloadPdf_FillsCache(@TempDir Path pdfDirectory) throws Exception {
+        Path file = Files.write(pdfDirectory.resolve("Seller_Buyer_abc123.pdf"), "%PDF-1.4 content".getBytes());
+        when(pdfDocumentService.findStoredPdf("Seller_Buyer_abc123.pdf"))
+                .thenReturn(Optional.of(new PdfStorageEntry("Seller_Buyer_abc123.pdf", Files.size(file), Instant.now(), file)));
+        when(pdfDocumentService.isCacheable(anyLong())).thenReturn(true);
+
+        // Request the whole file
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pdf/download/Seller_Buyer_abc123.pdf");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("Seller_Buyer_abc123.pdf", request);
+
+        // Assert the file is only read into the cache while the response body is written
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(pdfDocumentService, never()).streamIntoCache(anyString(), any());
+        ((StreamingResponseBody) Objects.requireNonNull(response.getBody())).writeTo(new ByteArrayOutputStream());
+        verify(pdfDocumentService).streamIntoCache(eq("Seller_Buyer_abc123.pdf"), any());
+    }
+
+    // Test the `downloadPdf` method with a byte range of a file which is not on the local file system
+    @Test
+    public void testDownloadPdf_RangeFromRemoteStorage() throws Exception {
+        byte[] content = "%PDF-1.4 content".getBytes();
+        when(pdfDocumentService.findStoredPdf("Seller_Buyer_abc123.pdf"))
+                .thenReturn(Optional.of(new PdfStorageEntry("Seller_Buyer_abc123.pdf", content.length, Instant.now(), null)));
+        when(pdfDocumentService.openStoredPdf("Seller_Buyer_abc123.pdf")).thenReturn(new ByteArrayInputStream(content));
+
+        // Request the last seven bytes of the file
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pdf/download/Seller_Buyer_abc123.pdf");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-7");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("Seller_Buyer_abc123.pdf", request);
+
+        // Assert response
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 9-15/16", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingResponseBody) Objects.requireNonNull(response.getBody())).writeTo(body);
+        assertEquals("content", body.toString());
+    }
+
+    // Test the `downloadPdf` method with a file in the cache
+    @Test
+    public void testDownloadPdf_Cached() throws Exception {
+        when(pdfDocumentService.findCachedPdf("Seller_Buyer_abc123.pdf"))
+                .thenReturn(Optional.of(ByteBuffer.wrap("%PDF-1.4 content".getBytes()).asReadOnlyBuffer()));
+
+        // Request the file
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pdf/download/Seller_Buyer_abc123.pdf");
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("Seller_Buyer_abc123.pdf", request);
+
+        // Assert the file is served from the cache without accessing the storage
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(16, response.getHeaders().getContentLength());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingResponseBody) Objects.requireNonNull(response.getBody())).writeTo(body);
+        assertEquals("%PDF-1.4 content", body.toString());
+        verify(pdfDocumentService, never()).findStoredPdf(anyString());
+    }
+
+    // Test the `downloadPdf` method with a file name escaping the PDF directory
+    @Test
+    public void testDownloadPdf_InvalidFileName() {
+        ResponseEntity<?> response = pdfGeneratorController.downloadPdf("..%2Fsecret.pdf", new MockHttpServletRequest());
 
         // Assert response
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -0,0 +1,114 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.util.StringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PdfBatchServiceTest {
+
+    // Batch service under test
+    private PdfBatchService pdfBatchService;
+
+    // Mock the PDF document service
+    @Mock
+    private PdfDocumentService pdfDocumentService;
+
+    // Validator factory backing the validator of the batch service
+    private ValidatorFactory validatorFactory;
+
+    // Setup method to initialize the mocks and the batch service with a synchronous executor
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        pdfBatchService = new PdfBatchService(pdfDocumentService, new StringUtil(), validatorFactory.getValidator(), new SyncTaskExecutor(),
+                new PdfRenderMetrics(new SimpleMeterRegistry()));
+    }
+
+    // Cleanup method to close the validator factory
+    @AfterEach
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // Test that valid and invalid entries get their own result in the order of the batch
+    @Test
+    public void testGenerateAndStoreBatch_PartialFailure() throws Exception {
+        PdfDataModel valid = new PdfDataModel("Seller Company", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product A", 2, new BigDecimal("10.00"), new BigDecimal("20.00"))));
+        PdfDataModel invalid = new PdfDataModel(null, "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product A", 2, new BigDecimal("10.00"), new BigDecimal("20.00"))));
+        when(pdfDocumentService.generateAndStore(valid, false)).thenReturn("Seller_Company_Buyer_Company_hash.pdf");
+
+        // Process the batch
+        List<Map<String, Object>> results = pdfBatchService.generateAndStoreBatch(Arrays.asList(valid, invalid, null));
+
+        // Assert the result of every entry
+        assertEquals(3, results.size());
+        assertEquals("Success", results.get(0).get("status"));
+        assertEquals("Seller_Company_Buyer_Company_hash.pdf", results.get(0).get("fileName"));
+        assertEquals("Failure", results.get(1).get("status"));
+        assertEquals("'Seller Name' is mandatory", results.get(1).get("message"));
+        assertEquals("Failure", results.get(2).get("status"));
+        verify(pdfDocumentService, times(1)).generateAndStore(any(), eq(false));
+    }
+
+    // Test that a render failure of one entry does not abort the batch
+    @Test
+    public void testGenerateAndStoreBatch_RenderFailure() throws Exception {
+        PdfDataModel first = new PdfDataModel("Seller Company", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product A", 2, new BigDecimal("10.00"), new BigDecimal("20.00"))));
+        PdfDataModel second = new PdfDataModel("Other Seller", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product B", 1, new BigDecimal("5.00"), new BigDecimal("5.00"))));
+        when(pdfDocumentService.generateAndStore(first, false)).thenThrow(new IllegalStateException("Rendering failed"));
+        when(pdfDocumentService.generateAndStore(second, false)).thenReturn("Other_Seller_Buyer_Company_hash.pdf");
+
+        // Process the batch
+        List<Map<String, Object>> results = pdfBatchService.generateAndStoreBatch(List.of(first, second));
+
+        // Assert the failed entry is reported and the other one is stored
+        assertEquals("Error", results.get(0).get("status"));
+        assertEquals(500, results.get(0).get("statusCode"));
+        assertEquals("Success", results.get(1).get("status"));
+    }
+
+    // Test that an entry with a template which is unknown when it is rendered, e.g. removed meanwhile, is a failure of the entry
+    @Test
+    public void testGenerateAndStoreBatch_UnknownTemplate() throws Exception {
+        PdfDataModel pdfDataModel = new PdfDataModel("Seller Company", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product A", 2, new BigDecimal("10.00"), new BigDecimal("20.00"))));
+        when(pdfDocumentService.generateAndStore(pdfDataModel, false)).thenThrow(new InvalidPdfDataException("Unknown template: removed"));
+
+        // Process the batch
+        List<Map<String, Object>> results = pdfBatchService.generateAndStoreBatch(List.of(pdfDataModel));
+
+        // Assert the entry is reported as a client error
+        assertEquals("Failure", results.get(0).get("status"));
+        assertEquals(400, results.get(0).get("statusCode"));
+        assertEquals("Unknown template: removed", results.get(0).get("message"));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PdfBulkServiceTest {
+
+    // Bulk service under test
+    private PdfBulkService pdfBulkService;
+
+    // Mock the batch service
+    @Mock
+    private PdfBatchService pdfBatchService;
+
+    // Object mapper reading the records and the result lines
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Setup method to initialize the mocks and the bulk service with a synchronous executor
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pdfBulkService = new PdfBulkService(objectMapper, pdfBatchService, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(pdfBulkService, "MAX_IN_FLIGHT", 2);
+    }
+
+    // Test that every record gets its own result line, followed by the summary line
+    @Test
+    public void testGenerateAndStore_ResultLinePerRecord() throws Exception {
+        String record = "{\"sellerName\":\"Seller Company\",\"buyerName\":\"Buyer Company\"}";
+        when(pdfBatchService.generateAndStore(eq(0), any(PdfDataModel.class))).thenReturn(Map.of(
+                "index", 0, "status", "Success", "statusCode", 200,
+                "message", "PDF generated and stored successfully", "fileName", "Seller_Company_Buyer_Company_hash.pdf"));
+        when(pdfBatchService.generateAndStore(eq(1), any(PdfDataModel.class))).thenReturn(Map.of(
+                "index", 1, "status", "Failure", "statusCode", 400, "message", "'Seller Name' is mandatory"));
+
+        // Process a stream with a blank line between the records
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfBulkService.generateAndStore(new ByteArrayInputStream((record + "\n\n" + record + "\n").getBytes(StandardCharsets.UTF_8)),
+                outputStream);
+
+        // Assert the result of every record and the summary
+        List<Map<?, ?>> lines = readLines(outputStream);
+        assertEquals(3, lines.size());
+        assertEquals("Seller_Company_Buyer_Company_hash.pdf", lines.get(0).get("fileName"));
+        assertEquals("Failure", lines.get(1).get("status"));
+        assertEquals(2, lines.get(2).get("processed"));
+        assertEquals(1, lines.get(2).get("succeeded"));
+    }
+
+    // Test that a malformed record only fails its own line
+    @Test
+    public void testGenerateAndStore_MalformedRecord() throws Exception {
+        when(pdfBatchService.generateAndStore(anyInt(), any(PdfDataModel.class))).thenReturn(Map.of(
+                "index", 1, "status", "Success", "statusCode", 200,
+                "message", "PDF generated and stored successfully", "fileName", "Seller_Company_Buyer_Company_hash.pdf"));
+
+        // Process a stream with a truncated record followed by a valid one
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfBulkService.generateAndStore(new ByteArrayInputStream("{\"sellerName\":\n{\"sellerName\":\"Seller Company\"}\n"
+                .getBytes(StandardCharsets.UTF_8)), outputStream);
+
+        // Assert the malformed record is reported and the other one is stored
+        List<Map<?, ?>> lines = readLines(outputStream);
+        assertEquals(0, lines.get(0).get("index"));
+        assertEquals(400, lines.get(0).get("statusCode"));
+        assertEquals("Success", lines.get(1).get("status"));
+        verify(pdfBatchService, times(1)).generateAndStore(eq(1), any(PdfDataModel.class));
+    }
+
+    // Helper method to read the NDJSON result lines
+    private List<Map<?, ?>> readLines(ByteArrayOutputStream outputStream) throws Exception {
+        List<Map<?, ?>> lines = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readValue(line, Map.class));
+        }
+        return lines;
+    }
+}
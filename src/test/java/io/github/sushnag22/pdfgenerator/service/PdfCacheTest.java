@@ -0,0 +1,64 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfCacheTest {
+
+    // Helper method to create a cache with the given settings
+    private PdfCache createPdfCache(long maxBytes, int maxEntryBytes, boolean offHeap) {
+        PdfCache pdfCache = new PdfCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pdfCache, "MAX_BYTES", maxBytes);
+        ReflectionTestUtils.setField(pdfCache, "MAX_ENTRY_BYTES", maxEntryBytes);
+        ReflectionTestUtils.setField(pdfCache, "OFF_HEAP", offHeap);
+        pdfCache.init();
+        return pdfCache;
+    }
+
+    // Test that a cached PDF is returned as a read only buffer, on and off the heap
+    @Test
+    public void testPutAndGet() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            PdfCache pdfCache = createPdfCache(1024, 64, offHeap);
+            pdfCache.put("Seller_Buyer_abc123.pdf", "%PDF-1.4".getBytes());
+
+            // Assert the content is cached
+            ByteBuffer content = pdfCache.get("Seller_Buyer_abc123.pdf").orElseThrow();
+            assertTrue(content.isReadOnly());
+            assertEquals(offHeap, content.isDirect());
+            byte[] bytes = new byte[content.remaining()];
+            content.get(bytes);
+            assertEquals("%PDF-1.4", new String(bytes));
+
+            // Assert reading the buffer does not consume the cached content
+            assertEquals(8, pdfCache.get("Seller_Buyer_abc123.pdf").orElseThrow().remaining());
+        }
+    }
+
+    // Test that a PDF larger than the entry limit is not cached
+    @Test
+    public void testPut_TooLarge() {
+        PdfCache pdfCache = createPdfCache(1024, 4, false);
+        pdfCache.put("Seller_Buyer_abc123.pdf", "%PDF-1.4".getBytes());
+
+        // Assert the content is not cached
+        assertTrue(pdfCache.get("Seller_Buyer_abc123.pdf").isEmpty());
+    }
+
+    // Test that a disabled cache keeps nothing
+    @Test
+    public void testDisabled() {
+        PdfCache pdfCache = createPdfCache(0, 64, false);
+        pdfCache.put("Seller_Buyer_abc123.pdf", "%PDF-1.4".getBytes());
+
+        // Assert the content is not cached and nothing is captured for it
+        assertTrue(pdfCache.get("Seller_Buyer_abc123.pdf").isEmpty());
+        assertFalse(pdfCache.accepts(1));
+        assertEquals(0, pdfCache.getMaxEntryBytes());
+    }
+}
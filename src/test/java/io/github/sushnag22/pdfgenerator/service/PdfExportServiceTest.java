@@ -0,0 +1,115 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.storage.InMemoryPdfStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PdfExportServiceTest {
+
+    // Export service under test
+    private PdfExportService pdfExportService;
+
+    // In-memory storage backend holding the PDFs to export
+    private InMemoryPdfStorage pdfStorage;
+
+    // Index of the stored PDF files
+    private PdfStorageIndex pdfStorageIndex;
+
+    // Setup method to initialize the export service with an in-memory storage and a disabled cache
+    @BeforeEach
+    public void setUp() {
+        pdfStorage = new InMemoryPdfStorage();
+        pdfStorageIndex = new PdfStorageIndex(pdfStorage);
+        pdfExportService = new PdfExportService(pdfStorage, pdfStorageIndex, new PdfCache(new SimpleMeterRegistry()));
+    }
+
+    // Test that every file is exported as a STORED entry with its content
+    @Test
+    public void testExport() throws Exception {
+        storePdf("Seller_Buyer_ab12cd34.pdf", "%PDF-1.5 first");
+        storePdf("Seller_Buyer_ef56ab78.pdf", "%PDF-1.5 second");
+
+        // Export the files
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfExportService.export(List.of("Seller_Buyer_ab12cd34.pdf", "Seller_Buyer_ef56ab78.pdf"), outputStream);
+
+        // Assert the entries of the archive
+        List<String> contents = new ArrayList<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                assertEquals(ZipEntry.STORED, zipEntry.getMethod());
+                contents.add(zipEntry.getName() + ":" + new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("Seller_Buyer_ab12cd34.pdf:%PDF-1.5 first", "Seller_Buyer_ef56ab78.pdf:%PDF-1.5 second"), contents);
+    }
+
+    // Test that a file of a backend without local files, larger than the read buffer, is exported intact without being buffered
+    @Test
+    public void testExport_StreamedTwice() throws Exception {
+        byte[] content = new byte[200 * 1024 + 3];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        pdfStorage.put("Seller_Buyer_ab12cd34.pdf", new ByteArrayInputStream(content));
+        pdfStorageIndex.add("Seller_Buyer_ab12cd34.pdf");
+
+        // Export the file
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfExportService.export(List.of("Seller_Buyer_ab12cd34.pdf"), outputStream);
+
+        // Assert the entry has the content, the CRC-32 of a STORED entry is checked while it is read
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals("Seller_Buyer_ab12cd34.pdf", zipInputStream.getNextEntry().getName());
+            assertArrayEquals(content, zipInputStream.readAllBytes());
+        }
+    }
+
+    // Test that the files are selected by the prefix of their hash and the time they were stored
+    @Test
+    public void testSelectFileNames() throws Exception {
+        storePdf("Seller_Buyer_ab12cd34.pdf", "%PDF");
+        storePdf("Seller_Buyer_ab99cd34.pdf", "%PDF");
+        storePdf("Seller_Buyer_ef56ab78.pdf", "%PDF");
+
+        // Assert the selected files
+        assertEquals(List.of("Seller_Buyer_ab12cd34.pdf", "Seller_Buyer_ab99cd34.pdf"),
+                pdfExportService.selectFileNames("ab", null, null));
+        assertEquals(3, pdfExportService.selectFileNames(null, Instant.now().minus(1, ChronoUnit.HOURS), null).size());
+        assertEquals(List.of(), pdfExportService.selectFileNames("ab", Instant.now().plus(1, ChronoUnit.HOURS), null));
+    }
+
+    // Test that the files stored by another instance sharing the storage are selected and can be exported
+    @Test
+    public void testSelectFileNames_StoredByAnotherInstance() throws Exception {
+        storePdf("Seller_Buyer_ab12cd34.pdf", "%PDF");
+        pdfStorage.put("Seller_Buyer_ab99cd34.pdf", new ByteArrayInputStream("%PDF".getBytes(StandardCharsets.UTF_8)));
+
+        // Assert the file unknown to the index is selected and not reported as missing
+        assertEquals(List.of("Seller_Buyer_ab12cd34.pdf", "Seller_Buyer_ab99cd34.pdf"),
+                pdfExportService.selectFileNames("ab", null, null));
+        assertEquals(Optional.empty(), pdfExportService.findMissing(List.of("Seller_Buyer_ab99cd34.pdf")));
+    }
+
+    // Helper method to store a PDF with the given content
+    private void storePdf(String fileName, String content) throws Exception {
+        pdfStorage.put(fileName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        pdfStorageIndex.add(fileName);
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfFontRegistryTest {
+
+    // Temporary font directory
+    @TempDir
+    Path fontDirectory;
+
+    // Test that files which are not fonts or cannot be parsed are skipped without failing the startup
+    @Test
+    public void testLoad_SkipsInvalidFonts() throws Exception {
+        Files.writeString(fontDirectory.resolve("broken.ttf"), "not a font");
+        Files.writeString(fontDirectory.resolve("readme.txt"), "not a font either");
+
+        PdfFontRegistry pdfFontRegistry = new PdfFontRegistry();
+        ReflectionTestUtils.setField(pdfFontRegistry, "FONT_DIRECTORIES", fontDirectory + ", " + fontDirectory.resolve("missing"));
+        pdfFontRegistry.load();
+
+        // Assert no font is registered
+        assertTrue(pdfFontRegistry.getFontPaths().isEmpty());
+    }
+}
@@ -1,18 +1,33 @@
 package io.github.sushnag22.pdfgenerator.service;
 
+import com.lowagie.text.pdf.PdfReader;
+import io.github.sushnag22.pdfgenerator.config.TemplateEngineConfig;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
 import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.util.ItemSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 public class PdfGeneratorServiceTest {
@@ -25,13 +40,26 @@ public class PdfGeneratorServiceTest {
     @Mock
     private PdfDataModel pdfDataModel;
 
+    // Metrics of the render pipeline backed by an in-memory registry
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PdfRenderMetrics pdfRenderMetrics = new PdfRenderMetrics(meterRegistry);
+
+    // Mock the template registry
+    @Mock
+    private PdfTemplateRegistry pdfTemplateRegistry;
+
     // Setup method to initialize the mocks and set the PDF directory, item quantity unit, and currency format
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
         ReflectionTestUtils.setField(pdfGeneratorService, "PDF_DIRECTORY", "/tmp/pdf");
+        ReflectionTestUtils.setField(pdfGeneratorService, "STORAGE_BACKEND", "local");
         ReflectionTestUtils.setField(pdfGeneratorService, "ITEM_QUANTITY_UNIT", "Nos");
         ReflectionTestUtils.setField(pdfGeneratorService, "CURRENCY_FORMAT", "INR");
+        ReflectionTestUtils.setField(pdfGeneratorService, "HASH_ALGORITHM", "SHA-256");
+        when(pdfTemplateRegistry.resolve(any())).thenReturn(createTemplate("pdf_template", "v1"));
     }
 
     // Test the createPdfDirectory method
@@ -56,6 +84,20 @@ public class PdfGeneratorServiceTest {
         directory.toFile().delete();
     }
 
+    // Test that the createPdfDirectory method does not create the directory for a backend other than the local one
+    @Test
+    public void testCreatePdfDirectory_OtherBackend(@TempDir Path parentDirectory) {
+        Path directory = parentDirectory.resolve("pdf");
+        ReflectionTestUtils.setField(pdfGeneratorService, "PDF_DIRECTORY", directory.toString());
+        ReflectionTestUtils.setField(pdfGeneratorService, "STORAGE_BACKEND", "s3");
+
+        // Create the PDF directory
+        pdfGeneratorService.createPdfDirectory();
+
+        // Assert the directory is not created
+        assertFalse(Files.exists(directory));
+    }
+
     // Test the generateFileName method
     @Test
     public void testGenerateFileName() {
@@ -71,6 +113,9 @@ public class PdfGeneratorServiceTest {
         assertNotNull(fileName);
         assertTrue(fileName.startsWith("Seller_Company_Buyer_Company_"));
         assertTrue(fileName.endsWith(".pdf"));
+
+        // Assert the hash stage is recorded
+        assertEquals(1, meterRegistry.get("pdf.render.stage").tag("stage", "hash").timer().count());
     }
 
     // Test the hashPdfData method
@@ -87,4 +132,124 @@ public class PdfGeneratorServiceTest {
         assertNotNull(hash);
         assertFalse(hash.isEmpty());
     }
+
+    // Test that the hash depends on the values and not on the scale of the decimals
+    @Test
+    public void testHashPdfData_Canonical() {
+
+        // Create the same data with differently scaled decimals and a different item quantity
+        PdfDataModel data = createPdfDataModel(2, "25.5", "51");
+        PdfDataModel sameData = createPdfDataModel(2, "25.50", "51.00");
+        PdfDataModel otherData = createPdfDataModel(3, "25.5", "76.5");
+
+        // Generate the hashes
+        String hash = pdfGeneratorService.hashPdfData(data);
+
+        // Assert the hash is hexadecimal, stable for the same values and different for other values
+        assertTrue(hash.matches("[0-9a-f]{64}"));
+        assertEquals(hash, pdfGeneratorService.hashPdfData(sameData));
+        assertNotEquals(hash, pdfGeneratorService.hashPdfData(otherData));
+    }
+
+    // Test that hashing the items from a separate source gives the same hash as the whole PDF data
+    @Test
+    public void testHashPdfData_ItemSource() throws Exception {
+        PdfDataModel data = createPdfDataModel(2, "25.5", "51");
+        PdfDataModel header = createPdfDataModel(2, "25.5", "51");
+        header.setItems(null);
+
+        // Spool the items of the PDF data
+        try (ItemSpool itemSpool = new ItemSpool(null)) {
+            for (ItemDetailsModel item : data.getItems()) {
+                itemSpool.add(item);
+            }
+
+            // Assert the hash is the same as the one of the whole PDF data
+            assertEquals(pdfGeneratorService.hashPdfData(data), pdfGeneratorService.hashPdfData(header, itemSpool.size(), itemSpool));
+        }
+    }
+
+    // Test that the hash changes with the template and with its version
+    @Test
+    public void testHashPdfData_Template() throws Exception {
+        PdfDataModel data = createPdfDataModel(2, "25.5", "51");
+        String hash = pdfGeneratorService.hashPdfData(data);
+
+        // Assert a new version of the same template gives another hash
+        when(pdfTemplateRegistry.resolve(any())).thenReturn(createTemplate("pdf_template", "v2"));
+        assertNotEquals(hash, pdfGeneratorService.hashPdfData(data));
+
+        // Assert another template with the same version gives another hash
+        when(pdfTemplateRegistry.resolve(any())).thenReturn(createTemplate("pdf_template_compact", "v1"));
+        assertNotEquals(hash, pdfGeneratorService.hashPdfData(data));
+    }
+
+    // Test that a large invoice is rendered in chunks appended to the same PDF
+    @Test
+    public void testWritePdf_Chunked() throws Exception {
+        List<ItemDetailsModel> items = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            items.add(new ItemDetailsModel("Product " + i, i, new BigDecimal("10"), new BigDecimal(10 * i)));
+        }
+        PdfDataModel data = new PdfDataModel("Seller Company", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321", items);
+
+        // Render the invoice at once and in chunks of two items
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        createRenderingService(0, 2).writePdf(data, single);
+        ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+        createRenderingService(3, 2).writePdf(data, chunked);
+
+        // Assert the invoice fits on one page at once, and each of the four chunks starts on its own page
+        assertEquals(1, new PdfReader(single.toByteArray()).getNumberOfPages());
+        assertEquals(4, new PdfReader(chunked.toByteArray()).getNumberOfPages());
+    }
+
+    // Helper method to create a service which renders with the real template engine and renderers
+    private PdfGeneratorService createRenderingService(int largeDocumentThreshold, int chunkSize) {
+        TemplateEngineConfig templateEngineConfig = new TemplateEngineConfig();
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_DIRECTORY", "");
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_SIZE", 20);
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_TTL_MS", 0L);
+        SpringTemplateEngine templateEngine = templateEngineConfig.pdfTemplateEngine();
+
+        PdfRendererPool pdfRendererPool = new PdfRendererPool(new PdfFontRegistry());
+        ReflectionTestUtils.setField(pdfRendererPool, "POOL_SIZE", 1);
+        ReflectionTestUtils.setField(pdfRendererPool, "COMPRESSION_LEVEL", -1);
+        ReflectionTestUtils.setField(pdfRendererPool, "FULL_COMPRESSION", true);
+        pdfRendererPool.init();
+
+        PdfTemplateRegistry templateRegistry = new PdfTemplateRegistry(templateEngine, pdfRendererPool);
+        ReflectionTestUtils.setField(templateRegistry, "DEFAULT_TEMPLATE", "pdf_template");
+        ReflectionTestUtils.setField(templateRegistry, "CLASSPATH_TEMPLATES", "");
+        ReflectionTestUtils.setField(templateRegistry, "TEMPLATE_DIRECTORY", "");
+        ReflectionTestUtils.setField(templateRegistry, "TEMPLATE_PRELOAD", false);
+        ReflectionTestUtils.setField(templateRegistry, "RELOAD_CHECK_INTERVAL_MS", 2000L);
+        try {
+            templateRegistry.init();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        PdfGeneratorService renderingService = new PdfGeneratorService(templateEngine, pdfRendererPool,
+                templateRegistry, pdfRenderMetrics);
+        ReflectionTestUtils.setField(renderingService, "ITEM_QUANTITY_UNIT", "Nos");
+        ReflectionTestUtils.setField(renderingService, "CURRENCY_FORMAT", "INR");
+        ReflectionTestUtils.setField(renderingService, "LARGE_DOCUMENT_THRESHOLD", largeDocumentThreshold);
+        ReflectionTestUtils.setField(renderingService, "CHUNK_SIZE", chunkSize);
+        return renderingService;
+    }
+
+    // Helper method to create a classpath template with the given id and version
+    private PdfTemplateRegistry.Template createTemplate(String id, String version) {
+        return new PdfTemplateRegistry.Template(id, version, id,
+                getClass().getClassLoader().getResource("pdf_template.html").toExternalForm(), null, 0, 0, 0);
+    }
+
+    // Helper method to create PDF data with a single item
+    private PdfDataModel createPdfDataModel(int quantity, String rate, String amount) {
+        return new PdfDataModel("Seller Company", "123 Seller Street", "123456789012345",
+                "Buyer Company", "456 Buyer Avenue", "543210987654321",
+                List.of(new ItemDetailsModel("Product A", quantity, new BigDecimal(rate), new BigDecimal(amount))));
+    }
 }
@@ -0,0 +1,76 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobModel;
+import io.github.sushnag22.pdfgenerator.model.PdfJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class PdfJobServiceTest {
+
+    // Job service under test
+    private PdfJobService pdfJobService;
+
+    // Mock the PDF document service
+    @Mock
+    private PdfDocumentService pdfDocumentService;
+
+    // Mock the PDF data model
+    @Mock
+    private PdfDataModel pdfDataModel;
+
+    // Setup method to initialize the mocks and the job service with a synchronous executor
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pdfJobService = new PdfJobService(pdfDocumentService, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(pdfJobService, "JOB_RETENTION_MINUTES", 60L);
+    }
+
+    // Test that a successful job is done with the file name
+    @Test
+    public void testSubmit_Done() throws Exception {
+        when(pdfDocumentService.generateAndStore(pdfDataModel, false)).thenReturn("Seller_Buyer_hash.pdf");
+
+        // Submit the job
+        PdfJobModel pdfJobModel = pdfJobService.submit(pdfDataModel);
+
+        // Assert the job is done and can be polled
+        assertEquals(PdfJobStatus.DONE, pdfJobModel.getStatus());
+        assertEquals("Seller_Buyer_hash.pdf", pdfJobModel.getFileName());
+        assertSame(pdfJobModel, pdfJobService.getJob(pdfJobModel.getJobId()).orElseThrow());
+    }
+
+    // Test that a failed render marks the job as failed
+    @Test
+    public void testSubmit_Failed() throws Exception {
+        when(pdfDocumentService.generateAndStore(pdfDataModel, false)).thenThrow(new IllegalStateException("Rendering failed"));
+
+        // Submit the job
+        PdfJobModel pdfJobModel = pdfJobService.submit(pdfDataModel);
+
+        // Assert the job failed with an error message
+        assertEquals(PdfJobStatus.FAILED, pdfJobModel.getStatus());
+        assertNotNull(pdfJobModel.getErrorMessage());
+        assertNotNull(pdfJobModel.getFinishedAt());
+    }
+
+    // Test that a rejected job is not kept
+    @Test
+    public void testSubmit_QueueFull() {
+        pdfJobService = new PdfJobService(pdfDocumentService, task -> {
+            throw new TaskRejectedException("Queue is full");
+        });
+
+        // Assert the rejection is propagated
+        assertThrows(TaskRejectedException.class, () -> pdfJobService.submit(pdfDataModel));
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import io.github.sushnag22.pdfgenerator.storage.InMemoryPdfStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfMergeServiceTest {
+
+    // Merge service under test
+    private PdfMergeService pdfMergeService;
+
+    // In-memory storage backend holding the PDFs to merge
+    private InMemoryPdfStorage pdfStorage;
+
+    // Index of the stored PDF files
+    private PdfStorageIndex pdfStorageIndex;
+
+    // Setup method to initialize the merge service with an in-memory storage and a disabled cache
+    @BeforeEach
+    public void setUp() {
+        pdfStorage = new InMemoryPdfStorage();
+        pdfStorageIndex = new PdfStorageIndex(pdfStorage);
+        pdfMergeService = new PdfMergeService(pdfStorage, pdfStorageIndex, new PdfCache(new SimpleMeterRegistry()));
+    }
+
+    // Test that the pages of the stored files are merged in the requested order
+    @Test
+    public void testMerge() throws Exception {
+        storePdf("Seller_Buyer_first.pdf", PageSize.A4, 2);
+        storePdf("Seller_Buyer_second.pdf", PageSize.LETTER, 1);
+
+        // Merge the files in the reverse order of storage
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfMergeService.merge(List.of("Seller_Buyer_second.pdf", "Seller_Buyer_first.pdf"), outputStream);
+
+        // Assert the pages of the merged PDF
+        PdfReader pdfReader = new PdfReader(outputStream.toByteArray());
+        assertEquals(3, pdfReader.getNumberOfPages());
+        assertEquals(PageSize.LETTER.getHeight(), pdfReader.getPageSize(1).getHeight());
+        assertEquals(PageSize.A4.getHeight(), pdfReader.getPageSize(2).getHeight());
+        assertEquals(PageSize.A4.getHeight(), pdfReader.getPageSize(3).getHeight());
+        pdfReader.close();
+    }
+
+    // Test that the first file which is not stored is reported
+    @Test
+    public void testFindMissing() throws Exception {
+        storePdf("Seller_Buyer_first.pdf", PageSize.A4, 1);
+
+        // Assert the unknown and invalid file names are reported
+        assertEquals(Optional.empty(), pdfMergeService.findMissing(List.of("Seller_Buyer_first.pdf")));
+        assertEquals(Optional.of("Seller_Buyer_unknown.pdf"),
+                pdfMergeService.findMissing(List.of("Seller_Buyer_first.pdf", "Seller_Buyer_unknown.pdf")));
+        assertEquals(Optional.of("../Seller_Buyer_first.pdf"), pdfMergeService.findMissing(List.of("../Seller_Buyer_first.pdf")));
+    }
+
+    // Test that a file stored by another instance sharing the storage is not reported as missing
+    @Test
+    public void testFindMissing_StoredByAnotherInstance() throws Exception {
+        storePdf("Seller_Buyer_first.pdf", PageSize.A4, 1);
+        pdfStorageIndex.remove("Seller_Buyer_first.pdf");
+
+        // Assert the file is found in the storage
+        assertEquals(Optional.empty(), pdfMergeService.findMissing(List.of("Seller_Buyer_first.pdf")));
+        assertTrue(pdfStorageIndex.contains("Seller_Buyer_first.pdf"));
+    }
+
+    // Helper method to store a PDF with the given number of pages of the given size
+    private void storePdf(String fileName, Rectangle pageSize, int pages) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Document document = new Document(pageSize);
+        PdfWriter.getInstance(document, outputStream);
+        document.open();
+        for (int page = 0; page < pages; page++) {
+            if (page > 0) {
+                document.newPage();
+            }
+            document.add(new Paragraph("Page " + (page + 1)));
+        }
+        document.close();
+        pdfStorage.put(fileName, new ByteArrayInputStream(outputStream.toByteArray()));
+        pdfStorageIndex.add(fileName);
+    }
+}
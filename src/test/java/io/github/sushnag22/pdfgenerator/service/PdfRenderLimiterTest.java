@@ -0,0 +1,143 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.exception.RenderCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfRenderLimiterTest {
+
+    // Limiter under test
+    private PdfRenderLimiter pdfRenderLimiter;
+
+    // Metrics of the limiter backed by an in-memory registry
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Setup method to initialize the limiter with a limit of one render and a queue of one
+    @BeforeEach
+    public void setUp() {
+        pdfRenderLimiter = createLimiter(1, 1, 2000L);
+    }
+
+    // Test that a render waiting in the queue starts once the render ahead of it is done
+    @Test
+    public void testAcquire_Queued() throws Exception {
+        PdfRenderLimiter.Permit first = pdfRenderLimiter.acquire();
+
+        // Wait for the limit on another thread
+        CompletableFuture<PdfRenderLimiter.Permit> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pdfRenderLimiter.acquire();
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        while (pdfRenderLimiter.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+
+        // Assert the queued render starts once the first one is released
+        first.complete();
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, pdfRenderLimiter.getInFlight());
+        assertFalse(pdfRenderLimiter.isSaturated());
+    }
+
+    // Test that a render is shed with a retry delay once the queue is full, and that the instance is then saturated
+    @Test
+    public void testAcquire_Shed() throws Exception {
+        pdfRenderLimiter = createLimiter(1, 0, 2000L);
+
+        try (PdfRenderLimiter.Permit ignored = pdfRenderLimiter.acquire()) {
+            RenderCapacityExceededException exception = assertThrows(RenderCapacityExceededException.class, pdfRenderLimiter::acquire);
+
+            // Assert the client is asked to retry later and the shed render is counted
+            assertTrue(exception.getRetryAfterSeconds() >= 1);
+            assertEquals(1, meterRegistry.get("pdf.limiter.rejected").counter().count());
+        }
+        assertTrue(pdfRenderLimiter.isSaturated());
+    }
+
+    // Test that a render of the internal pools waits for the limit instead of being shed, even when the queue is full
+    @Test
+    public void testAcquireBlocking_NotShed() throws Exception {
+        pdfRenderLimiter = createLimiter(1, 0, 10L);
+        PdfRenderLimiter.Permit first = pdfRenderLimiter.acquire();
+
+        // Wait for the limit on another thread, longer than the queue timeout
+        CompletableFuture<PdfRenderLimiter.Permit> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pdfRenderLimiter.acquireBlocking();
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+
+        // Assert the waiting render starts once the first one is released, and nothing was shed
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, meterRegistry.get("pdf.limiter.rejected").counter().count());
+        assertFalse(pdfRenderLimiter.isSaturated());
+    }
+
+    // Test that a render is shed when it waits longer than the queue timeout
+    @Test
+    public void testAcquire_QueueTimeout() throws Exception {
+        pdfRenderLimiter = createLimiter(1, 1, 10L);
+
+        try (PdfRenderLimiter.Permit ignored = pdfRenderLimiter.acquire()) {
+            assertThrows(RenderCapacityExceededException.class, pdfRenderLimiter::acquire);
+        }
+        assertEquals(0, pdfRenderLimiter.getQueued());
+    }
+
+    // Test that the limit is lowered when the renders slow down compared to their baseline
+    @Test
+    public void testRelease_LimitFollowsLatency() throws Exception {
+        pdfRenderLimiter = createLimiter(8, 0, 2000L);
+
+        // Fast renders set the baseline
+        for (int i = 0; i < 20; i++) {
+            try (PdfRenderLimiter.Permit permit = pdfRenderLimiter.acquire()) {
+                permit.complete();
+            }
+        }
+        int baselineLimit = pdfRenderLimiter.getLimit();
+
+        // Much slower renders lower the limit
+        for (int i = 0; i < 20; i++) {
+            try (PdfRenderLimiter.Permit permit = pdfRenderLimiter.acquire()) {
+                Thread.sleep(5);
+                permit.complete();
+            }
+        }
+
+        // Assert the limit was lowered but not below its minimum
+        assertTrue(pdfRenderLimiter.getLimit() < baselineLimit);
+        assertTrue(pdfRenderLimiter.getLimit() >= 1);
+    }
+
+    // Helper method to create a limiter with the given initial limit, queue size and queue timeout
+    private PdfRenderLimiter createLimiter(int initialLimit, int queueSize, long queueTimeoutMs) {
+        PdfRenderLimiter limiter = new PdfRenderLimiter(meterRegistry);
+        ReflectionTestUtils.setField(limiter, "ENABLED", true);
+        ReflectionTestUtils.setField(limiter, "INITIAL_LIMIT", initialLimit);
+        ReflectionTestUtils.setField(limiter, "MIN_LIMIT", 1);
+        ReflectionTestUtils.setField(limiter, "MAX_LIMIT", initialLimit);
+        ReflectionTestUtils.setField(limiter, "QUEUE_SIZE", queueSize);
+        ReflectionTestUtils.setField(limiter, "QUEUE_TIMEOUT_MS", queueTimeoutMs);
+        ReflectionTestUtils.setField(limiter, "LATENCY_TOLERANCE", 2.0);
+        ReflectionTestUtils.setField(limiter, "SATURATION_HOLD_MS", 5000L);
+        limiter.init();
+        return limiter;
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfRendererPoolTest {
+
+    // Pool under test
+    private PdfRendererPool pdfRendererPool;
+
+    // Setup method to initialize the pool with a single renderer and no additional fonts
+    @BeforeEach
+    public void setUp() {
+        pdfRendererPool = new PdfRendererPool(new PdfFontRegistry());
+        ReflectionTestUtils.setField(pdfRendererPool, "POOL_SIZE", 1);
+        ReflectionTestUtils.setField(pdfRendererPool, "COMPRESSION_LEVEL", -1);
+        ReflectionTestUtils.setField(pdfRendererPool, "FULL_COMPRESSION", true);
+        pdfRendererPool.init();
+    }
+
+    // Test that a renderer is reused after a successful task
+    @Test
+    public void testExecute_ReusesRenderer() throws Exception {
+        List<ITextRenderer> renderers = new ArrayList<>();
+
+        // Run two tasks one after the other
+        pdfRendererPool.execute(renderers::add);
+        pdfRendererPool.execute(renderers::add);
+
+        // Assert the same renderer was used for both tasks
+        assertEquals(2, renderers.size());
+        assertSame(renderers.get(0), renderers.get(1));
+    }
+
+    // Test that a renderer in use while the pool is invalidated is not reused
+    @Test
+    public void testInvalidate_DropsRendererInUse() throws Exception {
+        List<ITextRenderer> renderers = new ArrayList<>();
+
+        // Invalidate the pool while the first task runs
+        pdfRendererPool.execute(iTextRenderer -> {
+            renderers.add(iTextRenderer);
+            pdfRendererPool.invalidate();
+        });
+        pdfRendererPool.execute(renderers::add);
+
+        // Assert a fresh renderer was used after the invalidation
+        assertEquals(2, renderers.size());
+        assertNotSame(renderers.get(0), renderers.get(1));
+    }
+
+    // Test that a renderer is discarded after a failed task
+    @Test
+    public void testExecute_DiscardsRendererOnFailure() throws Exception {
+        List<ITextRenderer> renderers = new ArrayList<>();
+
+        // Run a failing task followed by a successful one
+        assertThrows(IllegalStateException.class, () -> pdfRendererPool.execute(iTextRenderer -> {
+            renderers.add(iTextRenderer);
+            throw new IllegalStateException("Rendering failed");
+        }));
+        pdfRendererPool.execute(renderers::add);
+
+        // Assert a fresh renderer was used after the failure
+        assertEquals(2, renderers.size());
+        assertNotSame(renderers.get(0), renderers.get(1));
+    }
+
+    // Test that the compression settings are applied to the rendered PDF
+    @Test
+    public void testExecute_AppliesCompression() throws Exception {
+        String html = "<html><body>" + "<p>Compressible line of text</p>".repeat(50) + "</body></html>";
+
+        // Render the same document without compression and with full compression
+        byte[] uncompressed = render(html, 0, false);
+        byte[] compressed = render(html, 9, true);
+
+        // Assert the compressed PDF is smaller and uses object streams
+        assertTrue(compressed.length < uncompressed.length);
+        assertTrue(new String(compressed, StandardCharsets.ISO_8859_1).contains("/ObjStm"));
+    }
+
+    // Helper method to render a document with a pool using the given compression settings
+    private byte[] render(String html, int compressionLevel, boolean fullCompression) throws Exception {
+        PdfRendererPool compressionPool = new PdfRendererPool(new PdfFontRegistry());
+        ReflectionTestUtils.setField(compressionPool, "POOL_SIZE", 1);
+        ReflectionTestUtils.setField(compressionPool, "COMPRESSION_LEVEL", compressionLevel);
+        ReflectionTestUtils.setField(compressionPool, "FULL_COMPRESSION", fullCompression);
+        compressionPool.init();
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        compressionPool.execute(iTextRenderer -> {
+            iTextRenderer.setDocumentFromString(html);
+            iTextRenderer.layout();
+            iTextRenderer.createPDF(byteArrayOutputStream, false);
+            iTextRenderer.finishPDF();
+        });
+        return byteArrayOutputStream.toByteArray();
+    }
+}
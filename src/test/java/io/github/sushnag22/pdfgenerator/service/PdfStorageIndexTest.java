@@ -0,0 +1,61 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.storage.InMemoryPdfStorage;
+import io.github.sushnag22.pdfgenerator.storage.LocalPdfStorage;
+import io.github.sushnag22.pdfgenerator.storage.PdfStorageLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfStorageIndexTest {
+
+    // Temporary PDF directory
+    @TempDir
+    Path pdfDirectory;
+
+    // Test that the index is loaded with the stored PDF files only, in the sharded and in the flat layout
+    @Test
+    public void testLoad() throws Exception {
+        PdfStorageLayout pdfStorageLayout = new PdfStorageLayout();
+        ReflectionTestUtils.setField(pdfStorageLayout, "PDF_DIRECTORY", pdfDirectory.toString());
+        ReflectionTestUtils.setField(pdfStorageLayout, "SHARD_DEPTH", 2);
+
+        // Store a sharded PDF file, a flat PDF file and an unrelated file
+        Files.createFile(pdfStorageLayout.prepareWrite("Seller_Buyer_0123456789abcdef.pdf"));
+        Files.createFile(pdfDirectory.resolve("Seller_Buyer_hash.pdf"));
+        Files.createFile(pdfDirectory.resolve("notes.txt"));
+
+        // Load the index
+        PdfStorageIndex pdfStorageIndex = new PdfStorageIndex(new LocalPdfStorage(pdfStorageLayout));
+        pdfStorageIndex.load();
+
+        // Assert only the PDF files are indexed
+        assertTrue(pdfStorageIndex.contains("Seller_Buyer_0123456789abcdef.pdf"));
+        assertTrue(pdfStorageIndex.contains("Seller_Buyer_hash.pdf"));
+        assertFalse(pdfStorageIndex.contains("notes.txt"));
+        assertEquals(2, pdfStorageIndex.size());
+    }
+
+    // Test that a file stored by another instance after the index was loaded is found in the storage and added to the index
+    @Test
+    public void testIsStored_StoredByAnotherInstance() throws Exception {
+        InMemoryPdfStorage pdfStorage = new InMemoryPdfStorage();
+        PdfStorageIndex pdfStorageIndex = new PdfStorageIndex(pdfStorage);
+        pdfStorageIndex.load();
+
+        // Store the file behind the back of the index
+        pdfStorage.put("Seller_Buyer_0123456789abcdef.pdf", new ByteArrayInputStream(new byte[]{'%'}));
+
+        // Assert the file is found and indexed, and an unknown file is not
+        assertTrue(pdfStorageIndex.isStored("Seller_Buyer_0123456789abcdef.pdf"));
+        assertTrue(pdfStorageIndex.contains("Seller_Buyer_0123456789abcdef.pdf"));
+        assertFalse(pdfStorageIndex.isStored("Seller_Buyer_unknown.pdf"));
+        assertEquals(1, pdfStorageIndex.size());
+    }
+}
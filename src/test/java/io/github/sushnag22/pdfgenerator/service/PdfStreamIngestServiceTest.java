@@ -0,0 +1,165 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.github.sushnag22.pdfgenerator.util.StringUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class PdfStreamIngestServiceTest {
+
+    // Streaming ingestion service under test
+    private PdfStreamIngestService pdfStreamIngestService;
+
+    // Mock the PDF document service
+    @Mock
+    private PdfDocumentService pdfDocumentService;
+
+    // Mock the template registry
+    @Mock
+    private PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Validator factory backing the validator of the service
+    private ValidatorFactory validatorFactory;
+
+    // Temporary directory of the spool files
+    @TempDir
+    Path spoolDirectory;
+
+    // Setup method to initialize the mocks and the service with a real object mapper and validator
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        pdfStreamIngestService = new PdfStreamIngestService(new ObjectMapper(), pdfDocumentService, new StringUtil(),
+                validatorFactory.getValidator(), new PdfRenderMetrics(new SimpleMeterRegistry()), pdfTemplateRegistry);
+        ReflectionTestUtils.setField(pdfStreamIngestService, "SPOOL_DIRECTORY", spoolDirectory.toString());
+    }
+
+    // Cleanup method to close the validator factory
+    @AfterEach
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // Test that the header and the items are read and handed over to the document service
+    @Test
+    public void testGenerateAndStore_Valid() throws Exception {
+        List<PdfDataModel> headers = new ArrayList<>();
+        List<ItemDetailsModel> items = new ArrayList<>();
+        when(pdfDocumentService.generateAndStore(any(), anyInt(), any())).thenAnswer(invocation -> {
+            headers.add(invocation.getArgument(0));
+            Iterable<ItemDetailsModel> spooledItems = invocation.getArgument(2);
+            spooledItems.forEach(items::add);
+            return "Seller_Company_Buyer_Company_hash.pdf";
+        });
+
+        String fileName = pdfStreamIngestService.generateAndStore(json("""
+                {"sellerName": "Seller Company", "sellerAddress": "123 Seller Street", "sellerGstin": "123456789012345",
+                 "buyerName": "Buyer Company", "buyerAddress": "456 Buyer Avenue", "buyerGstin": "543210987654321",
+                 "notes": {"ignored": [1, 2]},
+                 "items": [{"name": "Product A", "quantity": 2, "rate": 25.5, "amount": 51},
+                           {"name": "Product B", "quantity": 1, "rate": 10, "amount": 10.00}]}
+                """));
+
+        // Assert the file name, the header and the items in order
+        assertEquals("Seller_Company_Buyer_Company_hash.pdf", fileName);
+        assertEquals("Buyer Company", headers.get(0).getBuyerName());
+        assertEquals(List.of(
+                new ItemDetailsModel("Product A", 2, new BigDecimal("25.5"), new BigDecimal("51")),
+                new ItemDetailsModel("Product B", 1, new BigDecimal("10"), new BigDecimal("10.00"))), items);
+        verify(pdfDocumentService, times(1)).generateAndStore(any(), eq(2), any());
+
+        // Assert the spool file is deleted
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // Test that an invalid header is rejected before the items are read
+    @Test
+    public void testGenerateAndStore_InvalidHeader() throws Exception {
+        InvalidPdfDataException exception = assertThrows(InvalidPdfDataException.class, () -> pdfStreamIngestService.generateAndStore(json("""
+                {"sellerAddress": "123 Seller Street", "sellerGstin": "123456789012345",
+                 "buyerName": "Buyer Company", "buyerAddress": "456 Buyer Avenue", "buyerGstin": "543210987654321",
+                 "items": [{"name": "Product A", "quantity": 2, "rate": 25.5, "amount": 51}]}
+                """)));
+
+        // Assert the message and that nothing is rendered
+        assertEquals("'Seller Name' is mandatory", exception.getMessage());
+        verifyNoInteractions(pdfDocumentService);
+    }
+
+    // Test that the first invalid item is reported with its index
+    @Test
+    public void testGenerateAndStore_InvalidItem() throws Exception {
+        InvalidPdfDataException exception = assertThrows(InvalidPdfDataException.class, () -> pdfStreamIngestService.generateAndStore(json("""
+                {"sellerName": "Seller Company", "sellerAddress": "123 Seller Street", "sellerGstin": "123456789012345",
+                 "buyerName": "Buyer Company", "buyerAddress": "456 Buyer Avenue", "buyerGstin": "543210987654321",
+                 "items": [{"name": "Product A", "quantity": 2, "rate": 25.5, "amount": 51},
+                           {"name": "Product B", "quantity": 2, "rate": 10, "amount": 30},
+                           {"name": "Product C", "quantity": 0, "rate": 10, "amount": 0}]}
+                """)));
+
+        // Assert the message and that nothing is rendered
+        assertEquals("Item 1: Item amount must be equal to quantity multiplied by rate", exception.getMessage());
+        verifyNoInteractions(pdfDocumentService);
+    }
+
+    // Test that the header is rejected when it comes after the items, and that empty items are rejected
+    @Test
+    public void testGenerateAndStore_InvalidStructure() {
+        InvalidPdfDataException lateHeader = assertThrows(InvalidPdfDataException.class, () -> pdfStreamIngestService.generateAndStore(json("""
+                {"sellerName": "Seller Company", "sellerAddress": "123 Seller Street", "sellerGstin": "123456789012345",
+                 "buyerName": "Buyer Company", "buyerAddress": "456 Buyer Avenue",
+                 "items": [], "buyerGstin": "543210987654321"}
+                """)));
+        InvalidPdfDataException emptyItems = assertThrows(InvalidPdfDataException.class, () -> pdfStreamIngestService.generateAndStore(json("""
+                {"sellerName": "Seller Company", "sellerAddress": "123 Seller Street", "sellerGstin": "123456789012345",
+                 "buyerName": "Buyer Company", "buyerAddress": "456 Buyer Avenue", "buyerGstin": "543210987654321",
+                 "items": []}
+                """)));
+
+        // Assert the messages
+        assertEquals("'Buyer GSTIN' is mandatory", lateHeader.getMessage());
+        assertEquals("Item details cannot be empty", emptyItems.getMessage());
+    }
+
+    // Test that malformed JSON is reported as a parse error
+    @Test
+    public void testGenerateAndStore_MalformedJson() {
+        assertThrows(JsonProcessingException.class, () -> pdfStreamIngestService.generateAndStore(json("""
+                {"sellerName": "Seller Company", "sellerAddress": 
+                """)));
+    }
+
+    // Helper method to create a stream of the given JSON
+    private ByteArrayInputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
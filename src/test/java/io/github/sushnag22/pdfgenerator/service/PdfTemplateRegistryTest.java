@@ -0,0 +1,142 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.config.TemplateEngineConfig;
+import io.github.sushnag22.pdfgenerator.exception.InvalidPdfDataException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfTemplateRegistryTest {
+
+    // Registry under test
+    private PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Template engine resolving the templates of the directory before the classpath ones
+    private TemplateEngine templateEngine;
+
+    // Temporary directory of the templates
+    @TempDir
+    Path templateDirectory;
+
+    // Setup method to initialize the registry with the classpath template and an empty template directory
+    @BeforeEach
+    public void setUp() throws Exception {
+        TemplateEngineConfig templateEngineConfig = new TemplateEngineConfig();
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_DIRECTORY", templateDirectory.toString());
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_SIZE", 20);
+        ReflectionTestUtils.setField(templateEngineConfig, "TEMPLATE_CACHE_TTL_MS", 0L);
+        templateEngine = templateEngineConfig.pdfTemplateEngine();
+
+        PdfRendererPool pdfRendererPool = new PdfRendererPool(new PdfFontRegistry());
+        ReflectionTestUtils.setField(pdfRendererPool, "POOL_SIZE", 0);
+        ReflectionTestUtils.setField(pdfRendererPool, "COMPRESSION_LEVEL", -1);
+        ReflectionTestUtils.setField(pdfRendererPool, "FULL_COMPRESSION", true);
+        pdfRendererPool.init();
+
+        pdfTemplateRegistry = new PdfTemplateRegistry(templateEngine, pdfRendererPool);
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "DEFAULT_TEMPLATE", "pdf_template");
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "CLASSPATH_TEMPLATES", "");
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "TEMPLATE_DIRECTORY", templateDirectory.toString());
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "TEMPLATE_PRELOAD", true);
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "RELOAD_CHECK_INTERVAL_MS", 0L);
+        pdfTemplateRegistry.init();
+    }
+
+    // Teardown method to delete the copies of the directory templates
+    @AfterEach
+    public void tearDown() throws Exception {
+        pdfTemplateRegistry.destroy();
+    }
+
+    // Test that an empty template id selects the default classpath template
+    @Test
+    public void testResolve_Default() throws Exception {
+        PdfTemplateRegistry.Template template = pdfTemplateRegistry.resolve(null);
+
+        // Assert the default template is loaded from the classpath with a content fingerprint as version
+        assertEquals("pdf_template", template.id());
+        assertNull(template.file());
+        assertTrue(template.version().matches("[0-9a-f]{16}"));
+        assertEquals(template, pdfTemplateRegistry.resolve(" "));
+    }
+
+    // Test that unknown template ids and ids which are not file names are rejected
+    @Test
+    public void testResolve_Unknown() {
+        assertThrows(InvalidPdfDataException.class, () -> pdfTemplateRegistry.resolve("missing"));
+        assertThrows(InvalidPdfDataException.class, () -> pdfTemplateRegistry.resolve("../pdf_template"));
+        assertFalse(pdfTemplateRegistry.contains("missing"));
+        assertTrue(pdfTemplateRegistry.contains("pdf_template"));
+    }
+
+    // Test that an unknown template id is only looked up again once the check interval has elapsed
+    @Test
+    public void testResolve_UnknownRemembered() throws Exception {
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "RELOAD_CHECK_INTERVAL_MS", 60000L);
+        assertThrows(InvalidPdfDataException.class, () -> pdfTemplateRegistry.resolve("added"));
+
+        // Add the template, it is still unknown within the interval
+        Files.writeString(templateDirectory.resolve("added.html"), "<html><body>Added</body></html>");
+        assertThrows(InvalidPdfDataException.class, () -> pdfTemplateRegistry.resolve("added"));
+
+        // Assert it is found once the interval has elapsed
+        ReflectionTestUtils.setField(pdfTemplateRegistry, "RELOAD_CHECK_INTERVAL_MS", 0L);
+        assertEquals("added", pdfTemplateRegistry.resolve("added").id());
+    }
+
+    // Test that a template dropped into the directory is picked up, and gets a new version when it changes
+    @Test
+    public void testResolve_HotReload() throws Exception {
+        Path file = templateDirectory.resolve("compact.html");
+        Files.writeString(file, "<html><body><p>First</p></body></html>");
+
+        // Assert the new template is loaded without a restart
+        PdfTemplateRegistry.Template first = pdfTemplateRegistry.resolve("compact");
+        assertEquals(file, first.file());
+        assertTrue(templateEngine.process(first.name(), new Context()).contains("First"));
+
+        // Change the template and its modification time
+        Files.writeString(file, "<html><body><p>Second</p></body></html>");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(first.lastModified() + 1000));
+
+        // Assert the new content gets a new version, while the previous version still renders for a request which resolved it before
+        PdfTemplateRegistry.Template second = pdfTemplateRegistry.resolve("compact");
+        assertNotEquals(first.version(), second.version());
+        assertNotEquals(first.name(), second.name());
+        assertTrue(templateEngine.process(second.name(), new Context()).contains("Second"));
+        assertTrue(templateEngine.process(first.name(), new Context()).contains("First"));
+
+        // Assert a removed template is no longer served
+        Files.delete(file);
+        assertFalse(pdfTemplateRegistry.contains("compact"));
+    }
+
+    // Test that a change of only the stylesheet of a template gives it a new version
+    @Test
+    public void testResolve_StylesheetReload() throws Exception {
+        Path file = templateDirectory.resolve("styled.html");
+        Path stylesheet = templateDirectory.resolve("styled.css");
+        Files.writeString(file, "<html><body><p>Styled</p></body></html>");
+        Files.writeString(stylesheet, "p { color: red; }");
+        PdfTemplateRegistry.Template first = pdfTemplateRegistry.resolve("styled");
+
+        // Change only the stylesheet and its modification time
+        Files.writeString(stylesheet, "p { color: blue; }");
+        Files.setLastModifiedTime(stylesheet, FileTime.fromMillis(first.stylesheetLastModified() + 1000));
+
+        // Assert the template gets a new version although its own file did not change
+        PdfTemplateRegistry.Template second = pdfTemplateRegistry.resolve("styled");
+        assertEquals(first.lastModified(), second.lastModified());
+        assertNotEquals(first.version(), second.version());
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.sushnag22.pdfgenerator.service;
+
+import io.github.sushnag22.pdfgenerator.model.PdfDataModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PdfWarmupServiceTest {
+
+    // Warm-up service under test
+    private PdfWarmupService pdfWarmupService;
+
+    // Mock the PDF generator service
+    @Mock
+    private PdfGeneratorService pdfGeneratorService;
+
+    // Mock the template registry
+    @Mock
+    private PdfTemplateRegistry pdfTemplateRegistry;
+
+    // Mock the validator
+    @Mock
+    private Validator validator;
+
+    // Mock the application context
+    @Mock
+    private ApplicationContext applicationContext;
+
+    // Render metrics backed by an in-memory registry
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PdfRenderMetrics pdfRenderMetrics = new PdfRenderMetrics(meterRegistry);
+
+    // Setup method to initialize the mocks and the service with two templates, two invoice sizes and two iterations
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pdfWarmupService = new PdfWarmupService(pdfGeneratorService, pdfTemplateRegistry, validator, pdfRenderMetrics, applicationContext);
+        ReflectionTestUtils.setField(pdfWarmupService, "ENABLED", true);
+        ReflectionTestUtils.setField(pdfWarmupService, "ITERATIONS", 2);
+        ReflectionTestUtils.setField(pdfWarmupService, "ITEM_COUNTS", "1, 5");
+        ReflectionTestUtils.setField(pdfWarmupService, "EXIT", false);
+        when(pdfTemplateRegistry.getTemplates()).thenReturn(List.of(
+                new PdfTemplateRegistry.Template("pdf_template", "v1", "pdf_template", "classpath", null, 0, 0, 0),
+                new PdfTemplateRegistry.Template("compact", "v1", "/tmp/compact", "file", null, 0, 0, 0)));
+    }
+
+    // Test that every synthetic invoice is rendered with every template
+    @Test
+    public void testWarmUp() throws Exception {
+        assertEquals(8, pdfWarmupService.warmUp());
+
+        // Assert the renders are discarded, and that every template and invoice size was used
+        ArgumentCaptor<PdfDataModel> pdfDataModels = ArgumentCaptor.forClass(PdfDataModel.class);
+        verify(pdfGeneratorService, times(8)).writePdf(pdfDataModels.capture(), any(PdfTemplateRegistry.Template.class), any(OutputStream.class));
+        verify(pdfGeneratorService, times(8)).generateFileName(any(), any(PdfTemplateRegistry.Template.class));
+        assertEquals(4, pdfDataModels.getAllValues().stream().filter(pdfDataModel -> "compact".equals(pdfDataModel.getTemplateId())).count());
+        assertEquals(4, pdfDataModels.getAllValues().stream().filter(pdfDataModel -> pdfDataModel.getItems().size() == 5).count());
+    }
+
+    // Test that the warm-up renders are not recorded in the render metrics, and that the later renders are
+    @Test
+    public void testWarmUp_NotRecorded() throws Exception {
+        doAnswer(invocation -> {
+            pdfRenderMetrics.recordRender(1000, 1);
+            return null;
+        }).when(pdfGeneratorService).writePdf(any(), any(PdfTemplateRegistry.Template.class), any(OutputStream.class));
+        pdfWarmupService.warmUp();
+
+        // Assert only the render after the warm-up is recorded
+        pdfRenderMetrics.recordRender(1000, 1);
+        assertEquals(1, meterRegistry.get("pdf.render.size").summary().count());
+    }
+
+    // Test that a failed render stops the warm-up without failing the startup
+    @Test
+    public void testWarmUp_Failure() throws Exception {
+        doThrow(new IllegalStateException("Rendering failed")).when(pdfGeneratorService).writePdf(any(), any(PdfTemplateRegistry.Template.class), any(OutputStream.class));
+
+        // Assert no render is counted
+        assertEquals(0, pdfWarmupService.warmUp());
+    }
+}
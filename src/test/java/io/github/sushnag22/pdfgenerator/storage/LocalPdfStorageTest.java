@@ -0,0 +1,70 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalPdfStorageTest {
+
+    // Temporary PDF directory
+    @TempDir
+    Path pdfDirectory;
+
+    // Storage under test
+    private LocalPdfStorage localPdfStorage;
+
+    // Set up the storage before each test
+    @BeforeEach
+    public void setUp() {
+        PdfStorageLayout pdfStorageLayout = new PdfStorageLayout();
+        ReflectionTestUtils.setField(pdfStorageLayout, "PDF_DIRECTORY", pdfDirectory.toString());
+        ReflectionTestUtils.setField(pdfStorageLayout, "SHARD_DEPTH", 2);
+        localPdfStorage = new LocalPdfStorage(pdfStorageLayout);
+    }
+
+    // Test that a written file can be read, listed and deleted
+    @Test
+    public void testWriteAndRead() throws Exception {
+        localPdfStorage.write("Seller_Buyer_0123456789abcdef.pdf", outputStream -> outputStream.write("%PDF-1.4".getBytes()));
+
+        // Assert the file is stored
+        PdfStorageEntry storageEntry = localPdfStorage.stat("Seller_Buyer_0123456789abcdef.pdf").orElseThrow();
+        assertEquals(8, storageEntry.size());
+        assertNotNull(storageEntry.localPath());
+        try (InputStream inputStream = localPdfStorage.openInputStream("Seller_Buyer_0123456789abcdef.pdf")) {
+            assertEquals("%PDF-1.4", new String(inputStream.readAllBytes()));
+        }
+        try (Stream<String> fileNames = localPdfStorage.listFileNames()) {
+            assertEquals(List.of("Seller_Buyer_0123456789abcdef.pdf"), fileNames.toList());
+        }
+
+        // Assert the file is deleted
+        assertTrue(localPdfStorage.delete("Seller_Buyer_0123456789abcdef.pdf"));
+        assertFalse(localPdfStorage.exists("Seller_Buyer_0123456789abcdef.pdf"));
+    }
+
+    // Test that a failed write leaves neither the file nor a temporary file behind
+    @Test
+    public void testWrite_Failure() throws Exception {
+        assertThrows(IOException.class, () -> localPdfStorage.write("Seller_Buyer_0123456789abcdef.pdf", outputStream -> {
+            outputStream.write("%PDF-1.4".getBytes());
+            throw new IOException("Render failed");
+        }));
+
+        // Assert nothing is stored
+        assertFalse(localPdfStorage.exists("Seller_Buyer_0123456789abcdef.pdf"));
+        try (Stream<Path> files = Files.walk(pdfDirectory)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfStorageLayoutTest {
+
+    // Temporary PDF directory
+    @TempDir
+    Path pdfDirectory;
+
+    // Layout under test
+    private PdfStorageLayout pdfStorageLayout;
+
+    // Setup method to initialize the layout with two directory levels
+    @BeforeEach
+    public void setUp() {
+        pdfStorageLayout = new PdfStorageLayout();
+        ReflectionTestUtils.setField(pdfStorageLayout, "PDF_DIRECTORY", pdfDirectory.toString());
+        ReflectionTestUtils.setField(pdfStorageLayout, "SHARD_DEPTH", 2);
+    }
+
+    // Test that a file is stored under the prefix of its content hash
+    @Test
+    public void testResolve() {
+        Path path = pdfStorageLayout.resolve("Seller_Buyer_0123456789abcdef.pdf");
+
+        // Assert the path is sharded by the hash prefix
+        assertEquals(pdfDirectory.resolve("01").resolve("23").resolve("Seller_Buyer_0123456789abcdef.pdf"), path);
+    }
+
+    // Test that the migration moves the flat files into the sharded layout
+    @Test
+    public void testMigrateFlatLayout() throws Exception {
+        Path flatFile = Files.write(pdfDirectory.resolve("Seller_Buyer_0123456789abcdef.pdf"), "%PDF".getBytes());
+
+        // Assert the flat file is located before the migration
+        assertEquals(flatFile, pdfStorageLayout.locate("Seller_Buyer_0123456789abcdef.pdf"));
+
+        // Migrate the flat layout
+        pdfStorageLayout.migrateFlatLayout();
+
+        // Assert the file is moved into its shard
+        Path shardedFile = pdfStorageLayout.resolve("Seller_Buyer_0123456789abcdef.pdf");
+        assertFalse(Files.exists(flatFile));
+        assertTrue(Files.exists(shardedFile));
+        assertEquals(shardedFile, pdfStorageLayout.locate("Seller_Buyer_0123456789abcdef.pdf"));
+    }
+
+    // Test that the migration is not started for a backend other than the local one
+    @Test
+    public void testMigrateOnStartup_OtherBackend() {
+        ReflectionTestUtils.setField(pdfStorageLayout, "MIGRATE_FLAT_LAYOUT", true);
+        ReflectionTestUtils.setField(pdfStorageLayout, "STORAGE_BACKEND", "memory");
+
+        // Start the migration
+        pdfStorageLayout.migrateOnStartup();
+
+        // Assert no migration thread is started
+        assertTrue(Thread.getAllStackTraces().keySet().stream().noneMatch(thread -> thread.getName().equals("pdf-storage-migration")));
+    }
+}
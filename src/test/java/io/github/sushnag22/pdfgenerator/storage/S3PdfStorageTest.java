@@ -0,0 +1,119 @@
+package io.github.sushnag22.pdfgenerator.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class S3PdfStorageTest {
+
+    // Part size of the multipart uploads
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    // Inject the mocks
+    @InjectMocks
+    private S3PdfStorage s3PdfStorage;
+
+    // Mock the dependencies
+    @Mock
+    private S3Client s3Client;
+
+    // Set up the mocks before each test
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(s3PdfStorage, "BUCKET", "pdfs");
+        ReflectionTestUtils.setField(s3PdfStorage, "KEY_PREFIX", "pdf/");
+        ReflectionTestUtils.setField(s3PdfStorage, "PART_SIZE", PART_SIZE);
+    }
+
+    // Test that a file smaller than a part is uploaded with a single request
+    @Test
+    public void testWrite_SinglePut() throws Exception {
+        s3PdfStorage.write("Seller_Buyer_abc123.pdf", outputStream -> outputStream.write("%PDF-1.4".getBytes()));
+
+        // Assert the object is put without a multipart upload
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    // Test that a file written in small pieces past the initial size of the buffer is uploaded intact with a single request
+    @Test
+    public void testWrite_GrowingBuffer() throws Exception {
+        byte[] content = new byte[200 * 1024 + 7];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        s3PdfStorage.write("Seller_Buyer_abc123.pdf", outputStream -> {
+            outputStream.write(content[0]);
+            for (int offset = 1; offset < content.length; offset += 1000) {
+                outputStream.write(content, offset, Math.min(1000, content.length - offset));
+            }
+        });
+
+        // Assert the uploaded content is the written content
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(any(PutObjectRequest.class), requestBody.capture());
+        assertArrayEquals(content, requestBody.getValue().contentStreamProvider().newStream().readAllBytes());
+    }
+
+    // Test that a file larger than a part is uploaded in parts
+    @Test
+    public void testWrite_Multipart() throws Exception {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        byte[] content = new byte[PART_SIZE * 2 + 100];
+        Arrays.fill(content, (byte) 1);
+        s3PdfStorage.write("Seller_Buyer_abc123.pdf", outputStream -> outputStream.write(content));
+
+        // Assert three parts are uploaded and the upload is completed
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    // Test that a failed write aborts the multipart upload
+    @Test
+    public void testWrite_Failure() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        assertThrows(IOException.class, () -> s3PdfStorage.write("Seller_Buyer_abc123.pdf", outputStream -> {
+            outputStream.write(new byte[PART_SIZE]);
+            throw new IOException("Render failed");
+        }));
+
+        // Assert the upload is aborted and never completed
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    // Test that a missing object is reported as not stored
+    @Test
+    public void testStat_NotFound() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+
+        // Assert the file is not stored
+        assertEquals(Optional.empty(), s3PdfStorage.stat("Seller_Buyer_abc123.pdf"));
+    }
+}
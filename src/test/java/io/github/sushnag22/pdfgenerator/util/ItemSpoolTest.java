@@ -0,0 +1,61 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import io.github.sushnag22.pdfgenerator.model.ItemDetailsModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemSpoolTest {
+
+    // Temporary directory of the spool files
+    @TempDir
+    Path spoolDirectory;
+
+    // Test that the items are read back in order with the same values and scales, as many times as needed
+    @Test
+    public void testIterator_ReadsItemsAgain() throws Exception {
+        List<ItemDetailsModel> items = List.of(
+                new ItemDetailsModel("Product A", 2, new BigDecimal("25.50"), new BigDecimal("51.00")),
+                new ItemDetailsModel("Product B", null, new BigDecimal("10"), null),
+                new ItemDetailsModel(null, 1, null, new BigDecimal("0.001")));
+
+        try (ItemSpool itemSpool = new ItemSpool(spoolDirectory)) {
+            for (ItemDetailsModel item : items) {
+                itemSpool.add(item);
+            }
+
+            // Assert both reads return the items as they were added
+            assertEquals(3, itemSpool.size());
+            assertEquals(items, readAll(itemSpool));
+            assertEquals(items, readAll(itemSpool));
+        }
+    }
+
+    // Test that closing the spool deletes its temporary file
+    @Test
+    public void testClose_DeletesFile() throws Exception {
+        try (ItemSpool itemSpool = new ItemSpool(spoolDirectory)) {
+            itemSpool.add(new ItemDetailsModel("Product A", 1, BigDecimal.ONE, BigDecimal.ONE));
+            itemSpool.iterator().next();
+        }
+
+        // Assert no file is left behind
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // Helper method to read all the items of the spool
+    private List<ItemDetailsModel> readAll(ItemSpool itemSpool) {
+        List<ItemDetailsModel> items = new ArrayList<>();
+        itemSpool.forEach(items::add);
+        return items;
+    }
+}
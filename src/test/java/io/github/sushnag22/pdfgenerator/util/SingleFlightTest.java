@@ -0,0 +1,70 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    // Test that concurrent calls with the same key execute the work only once
+    @Test
+    public void testExecute_CoalescesConcurrentCalls() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            // Start the first call and block it until the second call is waiting
+            Future<String> first = executorService.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "value";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> second = executorService.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                return "other";
+            }));
+
+            // Wait until the second call is coalesced, then let the first call finish
+            while (singleFlight.getCoalescedCount() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            // Assert both calls got the result of the single execution
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertEquals(1, singleFlight.getCoalescedCount());
+            assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Test that a failed call is removed, so that the next call executes the work again
+    @Test
+    public void testExecute_FailureIsNotCached() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // Execute a failing call
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("Rendering failed");
+        }));
+
+        // Assert the next call executes again
+        assertEquals("value", singleFlight.execute("key", () -> "value"));
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StoredZipWriterTest {
+
+    // Temporary directory of the written archives
+    @TempDir
+    Path zipDirectory;
+
+    // Test that the entries are read back as STORED entries with their content
+    @Test
+    public void testWriteEntry_ReadableArchive() throws Exception {
+        Path zipFile = zipDirectory.resolve("export.zip");
+        try (FileChannel fileChannel = FileChannel.open(zipFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            StoredZipWriter storedZipWriter = new StoredZipWriter(fileChannel);
+            writeEntry(storedZipWriter, "Seller_Buyer_first.pdf", "%PDF-1.5 first");
+            writeEntry(storedZipWriter, "Seller_Buyer_second.pdf", "%PDF-1.5 second");
+            storedZipWriter.finish();
+        }
+
+        // Assert the archive lists both entries, uncompressed
+        try (ZipFile readZipFile = new ZipFile(zipFile.toFile())) {
+            assertEquals(2, readZipFile.size());
+            ZipEntry zipEntry = readZipFile.getEntry("Seller_Buyer_second.pdf");
+            assertEquals(ZipEntry.STORED, zipEntry.getMethod());
+            assertEquals("%PDF-1.5 second", new String(readZipFile.getInputStream(zipEntry).readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Test that an archive with more entries than the classic end record can count is written with the ZIP64 records
+    @Test
+    public void testFinish_Zip64EntryCount() throws Exception {
+        Path zipFile = zipDirectory.resolve("export.zip");
+        try (FileChannel fileChannel = FileChannel.open(zipFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            StoredZipWriter storedZipWriter = new StoredZipWriter(fileChannel);
+            for (int index = 0; index < 70000; index++) {
+                writeEntry(storedZipWriter, "Seller_Buyer_" + index + ".pdf", "%PDF");
+            }
+            storedZipWriter.finish();
+        }
+
+        // Assert every entry is listed
+        try (ZipFile readZipFile = new ZipFile(zipFile.toFile())) {
+            assertEquals(70000, readZipFile.size());
+        }
+    }
+
+    // Helper method to write an entry with the given text content
+    private void writeEntry(StoredZipWriter storedZipWriter, String name, String content) throws Exception {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes);
+        storedZipWriter.writeEntry(name, bytes.length, crc32.getValue(), Instant.now(),
+                channel -> channel.write(ByteBuffer.wrap(bytes)));
+    }
+}
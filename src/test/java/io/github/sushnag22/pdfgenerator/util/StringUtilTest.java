@@ -68,6 +68,17 @@ public class StringUtilTest {
         assertEquals("Seller GSTIN", result);
     }
 
+    // Test the `formatFieldName` method with the fields of the models and a field outside of them
+    @Test
+    public void testFormatFieldName_ModelFieldsAndUnknownField() {
+
+        // Assert the labels of the model fields and of a nested field path
+        assertEquals("Buyer GSTIN", stringUtil.formatFieldName("buyerGstin"));
+        assertEquals("Buyer Address", stringUtil.formatFieldName("buyerAddress"));
+        assertEquals("Items", stringUtil.formatFieldName("items"));
+        assertEquals("Items[0].name", stringUtil.formatFieldName("items[0].name"));
+    }
+
     // Test the `splitCamelCase` method
     @Test
     public void testSplitCamelCase() {
@@ -131,6 +142,22 @@ public class StringUtilTest {
         assertEquals("'Seller Name', and 'Seller GSTIN' are mandatory", result);
     }
 
+    // Test the `getFormattedErrorMessage` method with three field errors, one of them repeated
+    @Test
+    public void testGetFormattedErrorMessage_WithRepeatedFields() {
+        List<FieldError> fieldErrors = new ArrayList<>();
+        fieldErrors.add(new FieldError("objectName", "sellerName", "must not be empty"));
+        fieldErrors.add(new FieldError("objectName", "sellerName", "size must be between 3 and 50"));
+        fieldErrors.add(new FieldError("objectName", "buyerName", "must not be empty"));
+        fieldErrors.add(new FieldError("objectName", "buyerGstin", "must not be empty"));
+
+        // Generate the error message
+        String result = stringUtil.getFormattedErrorMessage(fieldErrors);
+
+        // Assert each field is listed once
+        assertEquals("'Seller Name', 'Buyer Name', and 'Buyer GSTIN' are mandatory", result);
+    }
+
     // Test the `getFormattedErrorMessage` method with no errors
     @Test
     public void testGetFormattedErrorMessage_WithNoErrors() {
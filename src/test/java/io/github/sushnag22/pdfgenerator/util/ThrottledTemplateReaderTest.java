@@ -0,0 +1,41 @@
+package io.github.sushnag22.pdfgenerator.util;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.StringWriter;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ThrottledTemplateReaderTest {
+
+    // Test that the reader returns the same output as processing the template at once, across many chunks
+    @Test
+    public void testRead_MatchesProcessedTemplate() throws Exception {
+        StringTemplateResolver stringTemplateResolver = new StringTemplateResolver();
+        stringTemplateResolver.setTemplateMode(TemplateMode.HTML);
+        TemplateEngine templateEngine = new TemplateEngine();
+        templateEngine.setTemplateResolver(stringTemplateResolver);
+
+        String template = "<table><tr th:each=\"row : ${rows}\"><td th:text=\"'Row ' + ${row}\"></td></tr></table>";
+        Context context = new Context();
+        context.setVariable("rows", IntStream.range(0, 5000).boxed().toList());
+
+        // Read the output through the reader in small reads
+        StringWriter streamed = new StringWriter();
+        try (ThrottledTemplateReader templateReader = new ThrottledTemplateReader(templateEngine.processThrottled(template, context))) {
+            char[] buffer = new char[100];
+            int count;
+            while ((count = templateReader.read(buffer, 0, buffer.length)) != -1) {
+                streamed.write(buffer, 0, count);
+            }
+        }
+
+        // Assert the output is complete
+        assertEquals(templateEngine.process(template, context), streamed.toString());
+    }
+}
@@ -11,7 +11,9 @@ import org.mockito.MockitoAnnotations;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -160,4 +162,40 @@ public class ItemDetailsValidatorTest {
                 .buildConstraintViolationWithTemplate("Item amount is mandatory and must be greater than 0");
     }
 
+
+    // Test case for many invalid items, each kind of violation is reported once
+    @Test
+    public void testIsValid_ManyInvalidItems() {
+
+        // Create items with mismatched amounts and missing quantities
+        List<ItemDetailsModel> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new ItemDetailsModel("Item " + i, 2, new BigDecimal("100.00"), new BigDecimal("150.00")));
+            items.add(new ItemDetailsModel("Item " + i, null, new BigDecimal("100.00"), new BigDecimal("150.00")));
+        }
+        boolean result = itemDetailsValidator.isValid(items, constraintValidatorContext);
+
+        // Assert the validation result
+        assertFalse(result);
+
+        // Verify each violation is built once
+        verify(constraintValidatorContext, times(1))
+                .buildConstraintViolationWithTemplate("Item amount must be equal to quantity multiplied by rate");
+        verify(constraintValidatorContext, times(1))
+                .buildConstraintViolationWithTemplate("Item quantity is mandatory and must be greater than 0");
+        verify(constraintValidatorContext, times(2)).buildConstraintViolationWithTemplate(anyString());
+    }
+
+    // Test the validation of a single item on its own
+    @Test
+    public void testFindViolation() {
+
+        // Assert a valid item has no violation and an invalid one reports its first violation
+        assertEquals(Optional.empty(), ItemDetailsValidator.findViolation(
+                new ItemDetailsModel("Item A", 2, new BigDecimal("100.00"), new BigDecimal("200.00"))));
+        assertEquals(Optional.of("Item rate is mandatory and must be greater than 0"), ItemDetailsValidator.findViolation(
+                new ItemDetailsModel("Item A", 2, null, null)));
+        assertEquals(Optional.of("Item amount must be equal to quantity multiplied by rate"), ItemDetailsValidator.findViolation(
+                new ItemDetailsModel("Item A", 2, new BigDecimal("100.00"), new BigDecimal("150.00"))));
+    }
 }